@@ -0,0 +1,120 @@
+package com.gabrielrq.database_converter.service;
+
+import com.gabrielrq.database_converter.BenchmarkSupport;
+import com.gabrielrq.database_converter.domain.SegmentStats;
+import org.h2.tools.SimpleResultSet;
+import org.h2.tools.SimpleRowSource;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Escrita e leitura dos segmentos JSON. A escrita usa um {@link SimpleResultSet} sintético, sem custo de rede, para
+ * isolar a codificação e o disco; {@code shape} alterna entre uma tabela estreita e uma com todos os tipos tratados.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonServiceBenchmark {
+
+    @Param({"10000"})
+    private int rows;
+
+    @Param({"narrow", "wide"})
+    private String shape;
+
+    private JsonService jsonService;
+    private Path directory;
+    private SimpleResultSet resultSet;
+    private Path segment;
+
+    @Setup
+    public void setup() throws Exception {
+        directory = Files.createTempDirectory("jmh-json");
+        jsonService = new JsonService();
+        BenchmarkSupport.setField(jsonService, "basePath", directory.toString());
+
+        resultSet = new SimpleResultSet(new SyntheticRows(rows, "wide".equals(shape)));
+        resultSet.setAutoClose(false);
+        resultSet.addColumn("ID", Types.INTEGER, 10, 0);
+        resultSet.addColumn("NAME", Types.VARCHAR, 100, 0);
+        if ("wide".equals(shape)) {
+            resultSet.addColumn("AMOUNT", Types.DECIMAL, 18, 2);
+            resultSet.addColumn("RATIO", Types.DOUBLE, 17, 0);
+            resultSet.addColumn("ACTIVE", Types.BOOLEAN, 1, 0);
+            resultSet.addColumn("CREATED_AT", Types.TIMESTAMP, 26, 6);
+            resultSet.addColumn("PAYLOAD", Types.VARBINARY, 64, 0);
+        }
+
+        jsonService.writeStream(resultSet, "read", rowCount -> {
+        });
+        segment = directory.resolve("read.json");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        BenchmarkSupport.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public SegmentStats writeStream() throws Exception {
+        resultSet.beforeFirst();
+        return jsonService.writeStream(resultSet, "write", rowCount -> {
+        });
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> readTableData() throws IOException {
+        return jsonService.readTableData(segment);
+    }
+
+    @Benchmark
+    public long streamTableData(Blackhole blackhole) throws IOException {
+        return jsonService.streamTableData(segment, blackhole::consume);
+    }
+
+    private static class SyntheticRows implements SimpleRowSource {
+        private final int rows;
+        private final boolean wide;
+        private final Timestamp timestamp = Timestamp.valueOf("2024-05-17 10:15:30.123456");
+        private final byte[] payload = new byte[64];
+        private int current;
+
+        SyntheticRows(int rows, boolean wide) {
+            this.rows = rows;
+            this.wide = wide;
+        }
+
+        @Override
+        public Object[] readRow() {
+            if (current >= rows) return null;
+            int id = current++;
+            String name = "registro " + id + " com 'aspas' e acentuação";
+            if (!wide) {
+                return new Object[]{id, name};
+            }
+            return new Object[]{id, name, BigDecimal.valueOf(id * 100L + 99, 2), id / 7.0, id % 2 == 0, timestamp, payload};
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public void reset() {
+            current = 0;
+        }
+    }
+}
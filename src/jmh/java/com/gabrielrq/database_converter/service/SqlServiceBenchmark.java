@@ -0,0 +1,82 @@
+package com.gabrielrq.database_converter.service;
+
+import com.gabrielrq.database_converter.BenchmarkSupport;
+import com.gabrielrq.database_converter.service.etl.RowRejectHandler;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Divisão em instruções do script lido por {@code bufferReadAndExec}, com um {@link Statement} que apenas conta
+ * as instruções recebidas.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SqlServiceBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Script {
+
+        @Param({"10000"})
+        private int statements;
+
+        private SqlService sqlService;
+        private Path directory;
+        private Statement statement;
+        private RowRejectHandler rejectHandler;
+        private long executed;
+
+        @Setup
+        public void setup() throws IOException {
+            directory = Files.createTempDirectory("jmh-sql");
+            sqlService = new SqlService(null);
+            BenchmarkSupport.setField(sqlService, "basePath", directory.toString());
+            BenchmarkSupport.setField(sqlService, "batchSize", 1000);
+            BenchmarkSupport.setField(sqlService, "commitInterval", 0L);
+
+            // Strings com ponto e vírgula, aspas escapadas e quebras de linha exercitam a divisão das instruções
+            try (BufferedWriter writer = Files.newBufferedWriter(directory.resolve("script.sql"), StandardCharsets.UTF_8)) {
+                for (int i = 0; i < statements; i++) {
+                    writer.write("INSERT INTO CLIENTE (ID,NOME,OBS) VALUES (" + i + ",'Cliente " + i + "','it''s; linha\ncontinua');");
+                    writer.newLine();
+                }
+            }
+
+            statement = (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[]{Statement.class}, (proxy, method, args) -> switch (method.getName()) {
+                case "addBatch" -> {
+                    executed++;
+                    yield null;
+                }
+                case "executeBatch" -> new int[0];
+                default -> null;
+            });
+            Connection connection = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, (proxy, method, args) -> null);
+            rejectHandler = RowRejectHandler.disabled(connection, "CLIENTE");
+        }
+
+        @TearDown
+        public void tearDown() throws IOException {
+            BenchmarkSupport.deleteRecursively(directory);
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long bufferReadAndExec(Script script) throws IOException, SQLException {
+        script.executed = 0;
+        script.sqlService.bufferReadAndExec(Path.of("script.sql"), script.statement, script.rejectHandler);
+        return script.executed;
+    }
+}
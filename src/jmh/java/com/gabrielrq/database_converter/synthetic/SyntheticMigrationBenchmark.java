@@ -0,0 +1,228 @@
+package com.gabrielrq.database_converter.synthetic;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.gabrielrq.database_converter.BenchmarkSupport;
+import com.gabrielrq.database_converter.DatabaseConverterApplication;
+import com.gabrielrq.database_converter.domain.MigrationStatus;
+import com.gabrielrq.database_converter.dto.DbConnectionConfigDTO;
+import com.gabrielrq.database_converter.dto.StartMigrationRequestDTO;
+import com.gabrielrq.database_converter.enums.ContentValidationMode;
+import com.gabrielrq.database_converter.enums.EtlStep;
+import com.gabrielrq.database_converter.service.etl.EtlService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Benchmark de ponta a ponta: gera um esquema sintético em uma base H2 local e executa extração, transformação,
+ * carga e validação pelo {@link EtlService}, com o contexto completo da aplicação. O destino é outra base H2 em modo
+ * de compatibilidade com o PostgreSQL, migrada com o alvo {@code POSTGRES}; sem a API de COPY, a carga usa os
+ * scripts DML. Nesse destino as colunas CLOB e BLOB passam a {@code TEXT} e {@code BYTEA}, de outro tipo genérico;
+ * com {@code synthetic.lobRatio > 0}, a validação aponta a diferença estrutural e não compara o conteúdo das tabelas.
+ * <p>
+ * Para cada etapa são reportados o tempo, a vazão em linhas, o pico de heap e os bytes gravados em
+ * {@code migration.data.path}. As opções são propriedades do Spring, passadas como {@code --chave=valor}:
+ * as do esquema e do modo em {@code synthetic.*} e as da aplicação, como {@code migration.extract.threads} e
+ * {@code migration.extract.fetchSize}, com os mesmos nomes do {@code application.yaml}.
+ */
+public class SyntheticMigrationBenchmark {
+
+    private static final long POLL_INTERVAL_MS = 20;
+    // Nome da configuração de origem, que dá nome ao diretório da migração em migration.data.path
+    private static final String ORIGIN_NAME = "synthetic_origin";
+
+    public record StageResult(String stage, double seconds, long rows, double rowsPerSecond, long peakHeapBytes, long bytesWritten) {
+    }
+
+    public record Result(Map<String, Object> options, List<StageResult> stages, double totalSeconds, long peakHeapBytes, long bytesWritten, String validation) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        // O reinício do devtools executaria o benchmark em outra thread e encerraria a thread principal com uma
+        // exceção silenciosa, deixando o código de saída do processo dependente de qual das duas termina por último
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(DatabaseConverterApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(withDefaults(args,
+                        "--migration.data.path=target/synthetic/data/",
+                        "--synthetic.work=target/synthetic",
+                        "--logging.level.root=WARN"
+                ));
+        try {
+            Result result = new SyntheticMigrationBenchmark(context).run();
+            print(result);
+
+            String output = context.getEnvironment().getProperty("synthetic.result", "target/synthetic-result.json");
+            Path outputFile = Path.of(output);
+            Files.createDirectories(outputFile.toAbsolutePath().getParent());
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(outputFile.toFile(), result);
+            System.out.println("Resultado gravado em " + outputFile.toAbsolutePath());
+        } finally {
+            context.close();
+        }
+    }
+
+    /**
+     * Acrescenta os valores padrão não informados. São passados como argumentos, e não como propriedades padrão da
+     * aplicação, para prevalecer sobre o {@code application.yaml}.
+     */
+    private static String[] withDefaults(String[] args, String... defaults) {
+        List<String> result = new ArrayList<>(List.of(args));
+        for (String option : defaults) {
+            String key = option.substring(0, option.indexOf('=') + 1);
+            if (result.stream().noneMatch(arg -> arg.startsWith(key))) {
+                result.add(option);
+            }
+        }
+        return result.toArray(String[]::new);
+    }
+
+    private final EtlService etlService;
+    private final ThreadPoolTaskExecutor asyncExecutor;
+    private final Environment env;
+    private final SyntheticSchema schema;
+    private final Path work;
+    private final Path dataPath;
+
+    public SyntheticMigrationBenchmark(ConfigurableApplicationContext context) {
+        this.etlService = context.getBean(EtlService.class);
+        this.asyncExecutor = context.getBean("applicationTaskExecutor", ThreadPoolTaskExecutor.class);
+        this.env = context.getEnvironment();
+        this.schema = new SyntheticSchema(
+                env.getProperty("synthetic.tables", Integer.class, 20),
+                env.getProperty("synthetic.rows", Long.class, 10_000L),
+                Arrays.stream(env.getProperty("synthetic.columns", "INTEGER,BIGINT,VARCHAR,NUMERIC,BOOLEAN,DATE,TIMESTAMP").split(","))
+                        .map(type -> SyntheticSchema.ColumnType.valueOf(type.trim().toUpperCase()))
+                        .toList(),
+                env.getProperty("synthetic.lobRatio", Double.class, 0.0),
+                env.getProperty("synthetic.lobSize", Integer.class, 4096),
+                env.getProperty("synthetic.fkDepth", Integer.class, 2)
+        );
+        this.work = Path.of(env.getRequiredProperty("synthetic.work")).toAbsolutePath();
+        this.dataPath = Path.of(env.getRequiredProperty("migration.data.path"));
+    }
+
+    public Result run() throws Exception {
+        boolean pipeMode = env.getProperty("synthetic.pipeMode", Boolean.class, false);
+        boolean fastLoad = env.getProperty("synthetic.fastLoad", Boolean.class, false);
+        ContentValidationMode validation = ContentValidationMode.valueOf(env.getProperty("synthetic.validation", "CHECKSUM").toUpperCase());
+
+        // Apenas os arquivos gerados pelo benchmark são removidos, nunca o restante de migration.data.path
+        Path migrationData = dataPath.resolve(ORIGIN_NAME);
+        BenchmarkSupport.deleteRecursively(work);
+        BenchmarkSupport.deleteRecursively(migrationData);
+        Files.createDirectories(work);
+
+        DbConnectionConfigDTO origin = new DbConnectionConfigDTO(ORIGIN_NAME,
+                "jdbc:h2:file:" + work.resolve("origin"), "sa", "", "org.h2.Driver");
+        DbConnectionConfigDTO target = new DbConnectionConfigDTO("synthetic_target",
+                "jdbc:h2:file:" + work.resolve("target") + ";MODE=PostgreSQL", "sa", "", "org.h2.Driver");
+
+        long generationStart = System.nanoTime();
+        schema.create(origin.jdbcUrl(), origin.username(), origin.password());
+        System.out.printf("Esquema gerado: %d tabela(s), %d linha(s) em %.2f s%n",
+                schema.tables(), schema.totalRows(), (System.nanoTime() - generationStart) / 1e9);
+
+        MigrationStatus status = etlService.createNew(new StartMigrationRequestDTO(
+                "synthetic", "POSTGRES", origin, target, pipeMode, fastLoad, false, validation));
+        UUID id = status.getId();
+
+        List<StageResult> stages = new ArrayList<>();
+        long start = System.nanoTime();
+        // No modo direto a extração lê apenas os metadados e as linhas trafegam na carga
+        stages.add(stage("extract", pipeMode ? 0 : schema.totalRows(), id, EtlStep.EXTRACTION_FINISHED, migrationData, etlService::startExtraction));
+        stages.add(stage("transform", pipeMode ? 0 : schema.totalRows(), id, EtlStep.WAITING_FOR_LOAD_CONFIRMATION, migrationData, etlService::startTransformation));
+        stages.add(stage("load", schema.totalRows(), id, EtlStep.LOAD_FINISHED, migrationData, etlService::startLoading));
+        stages.add(stage("validate", validation == ContentValidationMode.NONE ? 0 : schema.totalRows() * 2, id, EtlStep.FINISHED, migrationData, etlService::startConsistencyValidation));
+        double totalSeconds = (System.nanoTime() - start) / 1e9;
+
+        Map<String, Object> options = new LinkedHashMap<>();
+        options.put("schema", schema);
+        options.put("pipeMode", pipeMode);
+        options.put("fastLoad", fastLoad);
+        options.put("validation", validation);
+        for (String property : List.of("migration.data.format", "migration.extract.threads", "migration.extract.fetchSize",
+                "migration.extract.chunk.rows", "migration.load.threads", "migration.load.batchSize", "migration.pipe.batchSize")) {
+            options.put(property, env.getProperty(property));
+        }
+
+        return new Result(options, stages, totalSeconds,
+                stages.stream().mapToLong(StageResult::peakHeapBytes).max().orElse(0),
+                directorySize(migrationData),
+                etlService.getCurrentStatus(id).getMessage());
+    }
+
+    /**
+     * Inicia a etapa e aguarda a migração chegar a {@code finalStep} e a tarefa assíncrona da etapa terminar, já que
+     * o passo final é gravado antes do envio do status por SSE e da liberação das conexões. O pico de heap é a soma
+     * dos picos dos pools de heap durante a etapa, um limite superior do uso simultâneo.
+     */
+    private StageResult stage(String name, long rows, UUID id, EtlStep finalStep, Path migrationData, Consumer<UUID> starter) throws IOException, InterruptedException {
+        List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+        System.gc();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+        long bytesBefore = directorySize(migrationData);
+
+        long start = System.nanoTime();
+        starter.accept(id);
+        MigrationStatus status = etlService.getCurrentStatus(id);
+        while (status.getStep() != finalStep) {
+            if (status.getStep() == EtlStep.ERROR) {
+                throw new IllegalStateException("Falha na etapa '" + name + "': " + status.getMessage());
+            }
+            Thread.sleep(POLL_INTERVAL_MS);
+            status = etlService.getCurrentStatus(id);
+        }
+        // Nenhuma outra tarefa usa o executor durante o benchmark
+        while (asyncExecutor.getActiveCount() > 0) {
+            Thread.sleep(POLL_INTERVAL_MS);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        long peakHeap = heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+        StageResult result = new StageResult(name, seconds, rows, rows / seconds, peakHeap, directorySize(migrationData) - bytesBefore);
+        System.out.printf("  %-9s concluída em %.2f s%n", name, seconds);
+        return result;
+    }
+
+    private static long directorySize(Path path) throws IOException {
+        if (!Files.exists(path)) return 0;
+        try (Stream<Path> files = Files.walk(path)) {
+            long size = 0;
+            for (Path file : files.filter(Files::isRegularFile).toList()) {
+                size += Files.size(file);
+            }
+            return size;
+        }
+    }
+
+    private static void print(Result result) {
+        System.out.println();
+        System.out.printf("%-10s %10s %12s %14s %14s%n", "Etapa", "Tempo (s)", "Linhas/s", "Heap pico (MB)", "Gravado (MB)");
+        for (StageResult stage : result.stages()) {
+            System.out.printf("%-10s %10.2f %12.0f %14.1f %14.1f%n", stage.stage(), stage.seconds(), stage.rowsPerSecond(),
+                    stage.peakHeapBytes() / 1048576.0, stage.bytesWritten() / 1048576.0);
+        }
+        System.out.printf("%-10s %10.2f %12s %14.1f %14.1f%n", "total", result.totalSeconds(), "",
+                result.peakHeapBytes() / 1048576.0, result.bytesWritten() / 1048576.0);
+        if (result.validation() != null && !result.validation().isBlank()) {
+            System.out.println();
+            System.out.println(result.validation());
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.gabrielrq.database_converter.synthetic;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Esquema sintético gerado na base de origem. Cada tabela possui a chave {@code ID}, uma coluna por tipo de
+ * {@code columns} (com valores nulos esparsos), as colunas {@code DOC} (CLOB) e {@code BIN} (BLOB) quando
+ * {@code lobRatio > 0}, preenchidas com {@code lobSize} bytes nessa fração das linhas, e a coluna {@code PARENT_ID}
+ * nas tabelas que referenciam a anterior. As tabelas formam cadeias de chaves estrangeiras com {@code fkDepth} níveis
+ * abaixo da raiz.
+ * <p>
+ * As linhas são geradas no próprio banco ({@code SYSTEM_RANGE}), sem tráfego pelo driver.
+ */
+public record SyntheticSchema(int tables, long rows, List<ColumnType> columns, double lobRatio, int lobSize, int fkDepth) {
+
+    public enum ColumnType {
+        INTEGER("INTEGER", "CAST(MOD(X * 7919, 1000000) AS INTEGER)"),
+        BIGINT("BIGINT", "X * 1000003"),
+        VARCHAR("VARCHAR(64)", "CASE WHEN MOD(X, 50) = 0 THEN CONCAT('d''água ', X) ELSE CONCAT('valor-', X, '-', MOD(X, 97)) END"),
+        NUMERIC("NUMERIC(12,2)", "CAST(X * 1.25 AS NUMERIC(12,2))"),
+        DOUBLE("DOUBLE PRECISION", "X / 7.0"),
+        BOOLEAN("BOOLEAN", "MOD(X, 2) = 0"),
+        DATE("DATE", "DATEADD(DAY, MOD(X, 20000), DATE '1970-01-01')"),
+        TIMESTAMP("TIMESTAMP", "DATEADD(SECOND, X, TIMESTAMP '2020-01-01 00:00:00')");
+
+        private final String sqlType;
+        private final String expression;
+
+        ColumnType(String sqlType, String expression) {
+            this.sqlType = sqlType;
+            this.expression = expression;
+        }
+    }
+
+    public String tableName(int index) {
+        return "SYN_T%04d".formatted(index);
+    }
+
+    /**
+     * Tabela referenciada pela tabela {@code index}, ou {@code null} na raiz de cada cadeia.
+     */
+    public String parentOf(int index) {
+        return fkDepth > 0 && index % (fkDepth + 1) != 0 ? tableName(index - 1) : null;
+    }
+
+    public long totalRows() {
+        return tables * rows;
+    }
+
+    /**
+     * Recria a base: remove todos os objetos e gera tabelas e linhas, respeitando a ordem das chaves estrangeiras.
+     */
+    public void create(String jdbcUrl, String username, String password) throws SQLException {
+        try (
+                Connection connection = DriverManager.getConnection(jdbcUrl, username, password);
+                Statement stmt = connection.createStatement()
+        ) {
+            stmt.execute("DROP ALL OBJECTS");
+            for (int i = 0; i < tables; i++) {
+                stmt.execute(createTable(i));
+                stmt.execute(insertRows(i));
+            }
+            stmt.execute("ANALYZE");
+        }
+    }
+
+    private String createTable(int index) {
+        List<String> definitions = new ArrayList<>();
+        definitions.add("ID BIGINT NOT NULL PRIMARY KEY");
+        for (int c = 0; c < columns.size(); c++) {
+            definitions.add(columnName(c) + " " + columns.get(c).sqlType);
+        }
+        if (lobRatio > 0) {
+            definitions.add("DOC CLOB");
+            definitions.add("BIN BLOB");
+        }
+        String parent = parentOf(index);
+        if (parent != null) {
+            definitions.add("PARENT_ID BIGINT NOT NULL REFERENCES " + parent + " (ID)");
+        }
+        return "CREATE TABLE " + tableName(index) + " (" + String.join(", ", definitions) + ")";
+    }
+
+    private String insertRows(int index) {
+        List<String> names = new ArrayList<>();
+        List<String> values = new ArrayList<>();
+        names.add("ID");
+        values.add("X");
+        for (int c = 0; c < columns.size(); c++) {
+            names.add(columnName(c));
+            values.add("CASE WHEN MOD(X + %d, 17) = 0 THEN NULL ELSE %s END".formatted(c, columns.get(c).expression));
+        }
+        if (lobRatio > 0) {
+            // Seleção determinística das linhas com LOB, espalhada pela tabela
+            String filled = "MOD(X * 7919, 10000) < " + Math.round(lobRatio * 10_000);
+            String text = "REPEAT(CONCAT('lob ', MOD(X, 10), ' '), %d)".formatted(Math.max(1, lobSize / 6));
+            names.add("DOC");
+            values.add("CASE WHEN %s THEN %s END".formatted(filled, text));
+            names.add("BIN");
+            values.add("CASE WHEN %s THEN CAST(STRINGTOUTF8(%s) AS BLOB) END".formatted(filled, text));
+        }
+        if (parentOf(index) != null) {
+            names.add("PARENT_ID");
+            values.add("MOD(X * 31, %d) + 1".formatted(rows));
+        }
+        return "INSERT INTO %s (%s) SELECT %s FROM SYSTEM_RANGE(1, %d)"
+                .formatted(tableName(index), String.join(", ", names), String.join(", ", values), rows);
+    }
+
+    private String columnName(int index) {
+        return "C%02d_%s".formatted(index, columns.get(index).name());
+    }
+}
@@ -0,0 +1,71 @@
+package com.gabrielrq.database_converter.util;
+
+import com.gabrielrq.database_converter.domain.ColumnDefinition;
+import com.gabrielrq.database_converter.domain.TableDefinition;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.Types;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Formatação de uma linha do DML por tipo de coluna e destino.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DmlRowFormatterBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class DmlRow {
+
+        @Param({"null", "integer", "decimal", "boolean", "text", "quotedText", "timestamp", "timestampOffset", "bytes", "largeText"})
+        private String valueType;
+
+        @Param({"POSTGRES", "FIREBIRD"})
+        private String target;
+
+        private DmlRowFormatter formatter;
+        private final Map<String, Object> row = new HashMap<>();
+
+        @Setup
+        public void setup() {
+            // Tabela de uma coluna, do tipo do valor, para isolar o custo de cada formatador
+            int genericType = switch (valueType) {
+                case "integer" -> Types.INTEGER;
+                case "decimal" -> Types.NUMERIC;
+                case "boolean" -> Types.BOOLEAN;
+                case "timestamp", "timestampOffset" -> Types.TIMESTAMP;
+                case "bytes" -> Types.VARBINARY;
+                case "largeText" -> Types.CLOB;
+                default -> Types.VARCHAR;
+            };
+            ColumnDefinition column = new ColumnDefinition("VALOR", genericType, null, null, 0, 0, 0, true, false, null, 1);
+            formatter = DmlRowFormatter.compile(new TableDefinition("PRODUTO", List.of(column), List.of(), List.of(), List.of(), null), target);
+            row.put("VALOR", switch (valueType) {
+                case "null" -> null;
+                case "integer" -> 1_234_567;
+                case "decimal" -> new BigDecimal("12345.67");
+                case "boolean" -> Boolean.TRUE;
+                case "text" -> "Descrição simples de um produto";
+                case "quotedText" -> "O'Brien disse: 'tudo\tcerto'\n";
+                case "timestamp" -> "2024-05-17T10:15:30.123456Z";
+                case "timestampOffset" -> "2024-05-17T10:15:30-03:00";
+                case "bytes" -> new byte[256];
+                case "largeText" -> "x".repeat(70_000);
+                default -> throw new IllegalArgumentException(valueType);
+            });
+        }
+    }
+
+    @Benchmark
+    public StringBuilder formatDmlRow(DmlRow state) throws IOException {
+        return state.formatter.format(state.row);
+    }
+}
@@ -0,0 +1,40 @@
+package com.gabrielrq.database_converter.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversão de textos longos em literais BLOB do Firebird, de alguns KB até vários MB.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FirebirdBlobHelperBenchmark {
+
+    @Param({"1024", "65536", "1048576", "8388608"})
+    private int size;
+
+    private String text;
+
+    @Setup
+    public void setup() {
+        // Texto com caracteres multibyte, como em descrições reais
+        String alphabet = "abcdefghijklmnopqrstuvwxyz 0123456789 áéíóúçãõ";
+        Random random = new Random(42);
+        StringBuilder builder = new StringBuilder(size);
+        for (int i = 0; i < size; i++) {
+            builder.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        text = builder.toString();
+    }
+
+    @Benchmark
+    public String toFirebirdBlobLiteral() {
+        return FirebirdBlobHelper.toFirebirdBlobLiteral(text);
+    }
+}
@@ -0,0 +1,61 @@
+package com.gabrielrq.database_converter.util;
+
+import com.gabrielrq.database_converter.domain.ForeignKeyDefinition;
+import com.gabrielrq.database_converter.domain.TableDefinition;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ordenação por dependência de grafos grandes: {@code chain} é uma única cadeia de chaves estrangeiras e
+ * {@code random}, um grafo acíclico em que cada tabela referencia até três tabelas anteriores.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TableDependencyResolverBenchmark {
+
+    @Param({"10000"})
+    private int tables;
+
+    @Param({"chain", "random"})
+    private String graph;
+
+    private List<TableDefinition> definitions;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        definitions = new ArrayList<>(tables);
+        for (int i = 0; i < tables; i++) {
+            List<ForeignKeyDefinition> foreignKeys = new ArrayList<>();
+            if ("chain".equals(graph)) {
+                if (i > 0) foreignKeys.add(foreignKey(i, i - 1));
+            } else {
+                int references = i == 0 ? 0 : random.nextInt(4);
+                for (int r = 0; r < references; r++) {
+                    foreignKeys.add(foreignKey(i, random.nextInt(i)));
+                }
+            }
+            definitions.add(new TableDefinition("T" + i, List.of(), List.of("ID"), foreignKeys, List.of(), "public"));
+        }
+        // A ordem de entrada não deve favorecer o algoritmo
+        Collections.shuffle(definitions, random);
+    }
+
+    private static ForeignKeyDefinition foreignKey(int table, int referenced) {
+        return new ForeignKeyDefinition("FK_T" + table + "_T" + referenced, "T" + referenced, List.of("T" + referenced + "_ID"), List.of("ID"));
+    }
+
+    @Benchmark
+    public List<TableDefinition> sortTablesByDependency() {
+        return TableDependencyResolver.sortTablesByDependency(definitions);
+    }
+}
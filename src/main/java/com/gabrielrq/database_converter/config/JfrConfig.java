@@ -0,0 +1,37 @@
+package com.gabrielrq.database_converter.config;
+
+import com.gabrielrq.database_converter.event.*;
+import jakarta.annotation.PostConstruct;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Registra os eventos JFR da migração quando {@code migration.jfr.enabled} está ativo. Os eventos aparecem em
+ * gravações iniciadas com {@code -XX:StartFlightRecording} ou {@code jcmd <pid> JFR.start}; cada um pode ser
+ * desligado nas configurações da gravação pelo nome ({@code database_converter.*}).
+ */
+@Configuration
+public class JfrConfig {
+
+    private static final List<Class<? extends Event>> EVENTS = List.of(
+            TableExtractionEvent.class,
+            RowBatchEvent.class,
+            DmlGenerationEvent.class,
+            StatementBatchEvent.class,
+            CommitEvent.class,
+            ValidationQueryEvent.class
+    );
+
+    @Value("${migration.jfr.enabled:false}")
+    private boolean enabled;
+
+    @PostConstruct
+    public void registerEvents() {
+        if (!enabled || !FlightRecorder.isAvailable()) return;
+        EVENTS.forEach(FlightRecorder::register);
+    }
+}
@@ -42,6 +42,12 @@ public class MigrationController {
         return ResponseEntity.accepted().build();
     }
 
+    @PostMapping("/{id}/extract/resume")
+    public ResponseEntity<Void> resumeExtraction(@PathVariable UUID id) {
+        etlService.resumeExtraction(id);
+        return ResponseEntity.accepted().build();
+    }
+
     @PostMapping("/{id}/transform")
     public ResponseEntity<Void> startTransformation(@PathVariable UUID id) {
         etlService.startTransformation(id);
@@ -54,6 +60,12 @@ public class MigrationController {
         return ResponseEntity.accepted().build();
     }
 
+    @PostMapping("/{id}/load/resume")
+    public ResponseEntity<Void> resumeLoad(@PathVariable UUID id) {
+        etlService.resumeLoading(id);
+        return ResponseEntity.accepted().build();
+    }
+
     @PostMapping("/{id}/validate")
     public ResponseEntity<Void> startValidation(@PathVariable UUID id) {
         etlService.startConsistencyValidation(id);
@@ -67,8 +79,8 @@ public class MigrationController {
     }
 
     @GetMapping("/{id}/sse")
-    public SseEmitter getSseEvents(@PathVariable UUID id) {
-        return sseService.registerEmitter(id);
+    public SseEmitter getSseEvents(@PathVariable UUID id, @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return sseService.registerEmitter(id, lastEventId);
     }
 
     @GetMapping("/{id}/sql")
@@ -83,8 +95,7 @@ public class MigrationController {
 
     @PutMapping("/{id}/sql")
     public ResponseEntity<Void> updateSqlFile(@PathVariable UUID id, @RequestBody List<SqlDTO> sqlFiles) {
-        MigrationStatus status = etlService.getCurrentStatus(id);
-        sqlService.updateDDL(status.getName(), sqlFiles);
+        etlService.updateSql(id, sqlFiles);
         return ResponseEntity.noContent().build();
     }
 }
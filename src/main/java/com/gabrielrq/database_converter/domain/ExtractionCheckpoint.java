@@ -0,0 +1,26 @@
+package com.gabrielrq.database_converter.domain;
+
+import com.gabrielrq.database_converter.enums.ExtractionState;
+
+public record ExtractionCheckpoint(
+        ExtractionChunk chunk,
+        ExtractionState state,
+        long rowCount,
+        long byteSize,
+        String checksum,
+        int attempts,
+        String error
+) {
+
+    public static ExtractionCheckpoint pending(ExtractionChunk chunk) {
+        return new ExtractionCheckpoint(chunk, ExtractionState.PENDING, 0, 0, null, 0, null);
+    }
+
+    public ExtractionCheckpoint done(SegmentStats stats, int attempts) {
+        return new ExtractionCheckpoint(chunk, ExtractionState.DONE, stats.rowCount(), stats.byteSize(), stats.checksum(), this.attempts + attempts, null);
+    }
+
+    public ExtractionCheckpoint failed(String error, int attempts) {
+        return new ExtractionCheckpoint(chunk, ExtractionState.FAILED, 0, 0, null, this.attempts + attempts, error);
+    }
+}
@@ -0,0 +1,35 @@
+package com.gabrielrq.database_converter.domain;
+
+public record ExtractionChunk(
+        String table,
+        String segment,
+        String keyColumn,
+        Long lowerBound,
+        Long upperBound
+) {
+
+    public boolean isWholeTable() {
+        return keyColumn == null;
+    }
+
+    public String toSelect() {
+        return toSelect("*");
+    }
+
+    public String toSelect(String columnList) {
+        if (isWholeTable()) {
+            return "SELECT " + columnList + " FROM " + table;
+        }
+
+        // Limite inferior inclusivo, superior exclusivo; o último intervalo não possui limite superior
+        StringBuilder sql = new StringBuilder("SELECT ").append(columnList).append(" FROM ").append(table).append(" WHERE ");
+        if (lowerBound != null) {
+            sql.append(keyColumn).append(" >= ").append(lowerBound);
+        }
+        if (upperBound != null) {
+            if (lowerBound != null) sql.append(" AND ");
+            sql.append(keyColumn).append(" < ").append(upperBound);
+        }
+        return sql.toString();
+    }
+}
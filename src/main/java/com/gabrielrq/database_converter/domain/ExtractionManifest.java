@@ -0,0 +1,66 @@
+package com.gabrielrq.database_converter.domain;
+
+import com.gabrielrq.database_converter.enums.ExtractionState;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ExtractionManifest {
+    private DatabaseDefinition databaseMetadata;
+    private final Map<String, ExtractionCheckpoint> entries = new LinkedHashMap<>();
+
+    public synchronized DatabaseDefinition getDatabaseMetadata() {
+        return databaseMetadata;
+    }
+
+    public synchronized void setDatabaseMetadata(DatabaseDefinition databaseMetadata) {
+        this.databaseMetadata = databaseMetadata;
+    }
+
+    public synchronized List<ExtractionCheckpoint> getEntries() {
+        return new ArrayList<>(entries.values());
+    }
+
+    public synchronized void put(ExtractionCheckpoint checkpoint) {
+        entries.put(checkpoint.chunk().segment(), checkpoint);
+    }
+
+    public synchronized ExtractionCheckpoint get(String segment) {
+        return entries.get(segment);
+    }
+
+    public synchronized List<ExtractionCheckpoint> getIncomplete() {
+        return entries.values().stream().filter(e -> e.state() != ExtractionState.DONE).toList();
+    }
+
+    public synchronized boolean isTableComplete(String table) {
+        return entries.values().stream().noneMatch(e -> e.chunk().table().equals(table) && e.state() != ExtractionState.DONE);
+    }
+
+    public synchronized int countSegments(String table) {
+        return (int) entries.values().stream().filter(e -> e.chunk().table().equals(table)).count();
+    }
+
+    /**
+     * Linhas extraídas por tabela, somando os segmentos concluídos.
+     */
+    public synchronized Map<String, Long> getRowCounts() {
+        Map<String, Long> rowCounts = new LinkedHashMap<>();
+        for (var entry : entries.values()) {
+            if (entry.state() == ExtractionState.DONE) {
+                rowCounts.merge(entry.chunk().table(), entry.rowCount(), Long::sum);
+            }
+        }
+        return rowCounts;
+    }
+
+    public synchronized boolean isPlanned() {
+        return databaseMetadata != null && !entries.isEmpty();
+    }
+
+    public synchronized boolean isComplete() {
+        return isPlanned() && getIncomplete().isEmpty();
+    }
+}
@@ -0,0 +1,124 @@
+package com.gabrielrq.database_converter.domain;
+
+import com.gabrielrq.database_converter.enums.EtlStep;
+import io.micrometer.core.instrument.*;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import io.micrometer.core.instrument.search.Search;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Métricas de uma migração, com todos os medidores marcados pelo identificador da migração.
+ * <p>
+ * Linhas e bytes são expostos como contadores de função sobre os contadores de {@link TableProgress}, sem custo
+ * adicional nas threads da ETL. Os temporizadores de etapa são registrados por tabela; os de lote, apenas por etapa,
+ * com histograma, para limitar a quantidade de séries. Ao término da migração, {@link #close()} remove todos os
+ * medidores, para que as séries e os objetos associados não se acumulem entre as execuções.
+ */
+public class MigrationMetrics {
+
+    // Registro composto sem registros filhos: os medidores não armazenam valores
+    public static final MigrationMetrics DISABLED = new MigrationMetrics(new CompositeMeterRegistry(), "");
+
+    private final MeterRegistry registry;
+    private final String migrationId;
+    // Contadores de função guardam referência fraca ao objeto; as tabelas são mantidas aqui enquanto expostas
+    private final Map<Meter.Id, TableProgress> boundTables = new ConcurrentHashMap<>();
+
+    public MigrationMetrics(MeterRegistry registry, String migrationId) {
+        this.registry = registry;
+        this.migrationId = migrationId;
+    }
+
+    public String getMigrationId() {
+        return migrationId;
+    }
+
+    /**
+     * Tempo de uma etapa para a tabela, como {@code extract.fetch} ou {@code load}. Cada registro corresponde a um
+     * segmento ou tabela processado.
+     */
+    public Timer stageTimer(String stage, String table) {
+        return Timer.builder("migration.stage")
+                .tags("migration", migrationId, "stage", stage, "table", table)
+                .register(registry);
+    }
+
+    public void recordStage(String stage, String table, long nanos) {
+        stageTimer(stage, table).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Latência de cada lote enviado ao destino, com histograma de percentis.
+     */
+    public Timer batchTimer(String stage) {
+        return Timer.builder("migration.batch")
+                .tags("migration", migrationId, "stage", stage)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofMinutes(1))
+                .register(registry);
+    }
+
+    public void recordPhase(EtlStep step, long nanos) {
+        Timer.builder("migration.phase")
+                .tags("migration", migrationId, "step", step.name())
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Registra os contadores de linhas e bytes da tabela na etapa. Os de uma execução anterior da mesma etapa são
+     * substituídos, já que um contador de função permanece associado ao objeto do primeiro registro.
+     */
+    public void bindTable(EtlStep step, TableProgress progress) {
+        if (this == DISABLED) return;
+
+        Tags tags = Tags.of("migration", migrationId, "step", String.valueOf(step), "table", progress.getTable());
+        bindCounter("migration.rows", null, progress, TableProgress::getRows, tags);
+        bindCounter("migration.bytes", "bytes", progress, TableProgress::getBytes, tags);
+    }
+
+    private void bindCounter(String name, String baseUnit, TableProgress progress, ToDoubleFunction<TableProgress> value, Tags tags) {
+        Meter previous = registry.find(name).tags(tags).meter();
+        if (previous != null) {
+            registry.remove(previous);
+        }
+        FunctionCounter counter = FunctionCounter.builder(name, progress, value)
+                .tags(tags)
+                .baseUnit(baseUnit)
+                .register(registry);
+        boundTables.put(counter.getId(), progress);
+    }
+
+    /**
+     * Medidor de valor instantâneo; medidores temporários devem ser removidos com {@link #remove(Meter)}.
+     */
+    public <T> Gauge gauge(String name, T object, ToDoubleFunction<T> value, String... tags) {
+        return Gauge.builder(name, object, value)
+                .tags("migration", migrationId)
+                .tags(tags)
+                .strongReference(true)
+                .register(registry);
+    }
+
+    public void remove(Meter meter) {
+        registry.remove(meter);
+    }
+
+    /**
+     * Remove do registro todos os medidores marcados com o identificador da migração.
+     */
+    public void close() {
+        if (this == DISABLED) return;
+
+        for (Meter meter : Search.in(registry).tag("migration", migrationId).meters()) {
+            registry.remove(meter);
+        }
+        boundTables.clear();
+    }
+}
@@ -0,0 +1,81 @@
+package com.gabrielrq.database_converter.domain;
+
+import com.gabrielrq.database_converter.dto.MigrationProgressDTO;
+import com.gabrielrq.database_converter.dto.TableProgressDTO;
+import com.gabrielrq.database_converter.enums.EtlStep;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Progresso por tabela da etapa em execução de uma migração. A última amostra fica disponível para a consulta de
+ * status, sem recalcular os contadores a cada requisição.
+ */
+public class MigrationProgress {
+
+    private final Map<String, TableProgress> tables = new ConcurrentHashMap<>();
+    private volatile EtlStep step;
+    private volatile MigrationMetrics metrics = MigrationMetrics.DISABLED;
+    private volatile MigrationProgressDTO snapshot;
+
+    /**
+     * Reinicia o progresso para uma nova etapa; {@code estimates} traz a quantidade de linhas prevista por tabela.
+     * Os contadores de cada tabela são expostos em {@code metrics}.
+     */
+    public synchronized void start(EtlStep step, Map<String, Long> estimates, MigrationMetrics metrics) {
+        this.step = step;
+        this.metrics = metrics;
+        this.snapshot = null;
+        tables.clear();
+        estimates.forEach((table, rows) -> table(table).setRowsEstimated(rows));
+    }
+
+    public TableProgress table(String name) {
+        return tables.computeIfAbsent(name, table -> {
+            TableProgress progress = new TableProgress(table, metrics);
+            metrics.bindTable(step, progress);
+            return progress;
+        });
+    }
+
+    public MigrationMetrics getMetrics() {
+        return metrics;
+    }
+
+    public synchronized MigrationProgressDTO sample() {
+        long nanos = System.nanoTime();
+        List<TableProgressDTO> tableSnapshots = new ArrayList<>();
+        long rowsDone = 0;
+        long rowsEstimated = 0;
+        long bytesDone = 0;
+        double rate = 0;
+        boolean estimated = !tables.isEmpty();
+
+        for (TableProgress progress : tables.values()) {
+            TableProgressDTO table = progress.sample(nanos);
+            tableSnapshots.add(table);
+            rowsDone += table.rowsDone();
+            bytesDone += table.bytesDone();
+            rate += table.rowsPerSecond();
+            // Tabelas concluídas contam pelo realizado, já que a estimativa do catálogo é aproximada
+            if (table.finished()) {
+                rowsEstimated += table.rowsDone();
+            } else if (table.rowsEstimated() != null) {
+                rowsEstimated += Math.max(table.rowsEstimated(), table.rowsDone());
+            } else {
+                estimated = false;
+            }
+        }
+        tableSnapshots.sort((a, b) -> a.table().compareTo(b.table()));
+
+        Long eta = estimated && rate > 0 ? (long) Math.ceil(Math.max(0, rowsEstimated - rowsDone) / rate) : null;
+        snapshot = new MigrationProgressDTO(step, rowsDone, estimated ? rowsEstimated : null, bytesDone, rate, eta, tableSnapshots);
+        return snapshot;
+    }
+
+    public MigrationProgressDTO getSnapshot() {
+        return snapshot;
+    }
+}
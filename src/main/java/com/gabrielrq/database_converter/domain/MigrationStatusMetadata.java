@@ -1,8 +1,12 @@
 package com.gabrielrq.database_converter.domain;
 
 import com.gabrielrq.database_converter.dto.DbConnectionConfigDTO;
+import com.gabrielrq.database_converter.enums.ContentValidationMode;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class MigrationStatusMetadata {
     private String target;
@@ -10,13 +14,26 @@ public class MigrationStatusMetadata {
     private List<TableDefinition> executionOrder;
     private DbConnectionConfigDTO originConfig;
     private DbConnectionConfigDTO targetConfig;
-
-    public MigrationStatusMetadata(String target, DatabaseDefinition databaseMetadata, List<TableDefinition> executionOrder, DbConnectionConfigDTO originConfig, DbConnectionConfigDTO targetConfig) {
+    private ExtractionManifest extractionManifest;
+    private boolean pipeMode;
+    private boolean fastLoad;
+    private boolean tolerantLoad;
+    private ContentValidationMode contentValidation = ContentValidationMode.NONE;
+    private final Set<String> editedTables = ConcurrentHashMap.newKeySet();
+    private final Map<String, Long> rejectedRows = new ConcurrentHashMap<>();
+    private final Set<String> completedLoadSteps = ConcurrentHashMap.newKeySet();
+    private final MigrationProgress progress = new MigrationProgress();
+
+    public MigrationStatusMetadata(String target, DatabaseDefinition databaseMetadata, List<TableDefinition> executionOrder, DbConnectionConfigDTO originConfig, DbConnectionConfigDTO targetConfig, boolean pipeMode, boolean fastLoad, boolean tolerantLoad, ContentValidationMode contentValidation) {
         this.target = target;
         this.databaseMetadata = databaseMetadata;
         this.executionOrder = executionOrder;
         this.originConfig = originConfig;
         this.targetConfig = targetConfig;
+        this.pipeMode = pipeMode;
+        this.fastLoad = fastLoad;
+        this.tolerantLoad = tolerantLoad;
+        this.contentValidation = contentValidation;
     }
 
     public MigrationStatusMetadata() {
@@ -62,4 +79,60 @@ public class MigrationStatusMetadata {
     public void setTargetConfig(DbConnectionConfigDTO targetConfig) {
         this.targetConfig = targetConfig;
     }
+
+    public ExtractionManifest getExtractionManifest() {
+        return extractionManifest;
+    }
+
+    public void setExtractionManifest(ExtractionManifest extractionManifest) {
+        this.extractionManifest = extractionManifest;
+    }
+
+    public boolean isPipeMode() {
+        return pipeMode;
+    }
+
+    public void setPipeMode(boolean pipeMode) {
+        this.pipeMode = pipeMode;
+    }
+
+    public boolean isFastLoad() {
+        return fastLoad;
+    }
+
+    public void setFastLoad(boolean fastLoad) {
+        this.fastLoad = fastLoad;
+    }
+
+    public boolean isTolerantLoad() {
+        return tolerantLoad;
+    }
+
+    public void setTolerantLoad(boolean tolerantLoad) {
+        this.tolerantLoad = tolerantLoad;
+    }
+
+    public ContentValidationMode getContentValidation() {
+        return contentValidation;
+    }
+
+    public void setContentValidation(ContentValidationMode contentValidation) {
+        this.contentValidation = contentValidation;
+    }
+
+    public Set<String> getEditedTables() {
+        return editedTables;
+    }
+
+    public Map<String, Long> getRejectedRows() {
+        return rejectedRows;
+    }
+
+    public Set<String> getCompletedLoadSteps() {
+        return completedLoadSteps;
+    }
+
+    public MigrationProgress getProgress() {
+        return progress;
+    }
 }
@@ -0,0 +1,17 @@
+package com.gabrielrq.database_converter.domain;
+
+/**
+ * Resultado da escrita de um segmento. Os tempos separam a leitura do JDBC ({@code ResultSet.next}), a codificação
+ * das linhas e a escrita em disco.
+ */
+public record SegmentStats(
+        long rowCount,
+        long byteSize,
+        String checksum,
+        long fetchNanos,
+        long encodeNanos,
+        long diskNanos
+) {
+
+    public static final SegmentStats EMPTY = new SegmentStats(0, 0, null, 0, 0, 0);
+}
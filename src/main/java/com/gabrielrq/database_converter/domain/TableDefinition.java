@@ -1,5 +1,11 @@
 package com.gabrielrq.database_converter.domain;
 
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
 import java.util.List;
 
 public record TableDefinition(
@@ -11,6 +17,86 @@ public record TableDefinition(
         String schema
 ) {
 
+    /**
+     * Coluna da chave primária quando esta é simples e inteira, permitindo dividir a tabela em intervalos de chave;
+     * {@code null} nos demais casos.
+     */
+    public String integerKeyColumn() {
+        if (primaryKeyColumns.size() != 1) {
+            return null;
+        }
+
+        String keyColumn = primaryKeyColumns.getFirst();
+        return columns.stream()
+                .filter(c -> c.name().equalsIgnoreCase(keyColumn))
+                .filter(c -> switch (c.genericType()) {
+                    case Types.INTEGER, Types.BIGINT, Types.SMALLINT, Types.TINYINT -> true;
+                    default -> false;
+                })
+                .map(ColumnDefinition::name)
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Divide a tabela em até {@code maxRanges} intervalos uniformes de {@link #integerKeyColumn()}, com cerca de
+     * {@code rowsPerRange} linhas cada, a partir da quantidade de linhas e dos limites da chave lidos pela conexão.
+     * Com {@code estimatedRows} (estatística do catálogo) positivo, a divisão é decidida sem percorrer a tabela e
+     * apenas {@code MIN}/{@code MAX} da chave são consultados; sem estimativa, a quantidade vem de {@code COUNT(*)}. O primeiro e o
+     * último intervalo ficam abertos, para incluir chaves fora dos limites lidos. A tabela inteira é retornada em um
+     * único intervalo quando a chave não é inteira, o volume não justifica a divisão ou os limites do intervalo não
+     * podem ser calculados sem estouro.
+     */
+    public List<ExtractionChunk> planKeyRanges(Connection connection, Long estimatedRows, long rowsPerRange, int maxRanges, String segmentKind) throws SQLException {
+        List<ExtractionChunk> wholeTable = List.of(new ExtractionChunk(name, name, null, null, null));
+        String keyColumn = integerKeyColumn();
+        if (rowsPerRange <= 0 || keyColumn == null) {
+            return wholeTable;
+        }
+
+        // Estatística zerada pode indicar tabela nunca analisada, por isso também cai na contagem
+        boolean estimated = estimatedRows != null && estimatedRows > 0;
+        if (estimated && estimatedRows <= rowsPerRange) {
+            return wholeTable;
+        }
+
+        long rowCount;
+        long minKey;
+        long maxKey;
+        String bounds = "MIN(" + keyColumn + "), MAX(" + keyColumn + ")";
+        try (
+                Statement stmt = connection.createStatement();
+                ResultSet rs = stmt.executeQuery("SELECT " + (estimated ? "" : "COUNT(*), ") + bounds + " FROM " + name)
+        ) {
+            if (!rs.next()) {
+                return wholeTable;
+            }
+            int column = 1;
+            rowCount = estimated ? estimatedRows : rs.getLong(column++);
+            minKey = rs.getLong(column++);
+            maxKey = rs.getLong(column);
+        }
+
+        int rangeCount = (int) Math.min((rowCount + rowsPerRange - 1) / rowsPerRange, maxRanges);
+        if (rangeCount <= 1 || maxKey <= minKey) {
+            return wholeTable;
+        }
+
+        try {
+            long step = Math.subtractExact(maxKey, minKey) / rangeCount + 1;
+            List<ExtractionChunk> ranges = new ArrayList<>();
+            for (int i = 0; i < rangeCount; i++) {
+                Long lower = i == 0 ? null : Math.addExact(minKey, Math.multiplyExact(step, i));
+                Long upper = i == rangeCount - 1 ? null : Math.addExact(minKey, Math.multiplyExact(step, i + 1));
+                ranges.add(new ExtractionChunk(name, "%s.%s-%04d".formatted(name, segmentKind, i), keyColumn, lower, upper));
+            }
+            return ranges;
+        } catch (ArithmeticException e) {
+            // Chaves próximas dos extremos de long: sem divisão
+            return wholeTable;
+        }
+    }
+
     @Override
     public boolean equals(Object object) {
         if (!(object instanceof TableDefinition that)) return false;
@@ -0,0 +1,16 @@
+package com.gabrielrq.database_converter.domain;
+
+import com.gabrielrq.database_converter.enums.IntermediateFormat;
+
+import java.util.List;
+
+/**
+ * Segmentos de uma tabela extraída e o formato em que foram gravados.
+ */
+public record TableManifest(
+        String table,
+        String keyColumn,
+        List<String> segments,
+        IntermediateFormat format
+) {
+}
@@ -0,0 +1,91 @@
+package com.gabrielrq.database_converter.domain;
+
+import com.gabrielrq.database_converter.dto.TableProgressDTO;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Progresso de uma tabela na etapa atual. Os contadores são atualizados pelas threads da ETL sem bloqueio; a taxa e
+ * a estimativa de término são calculadas apenas na amostragem periódica ({@link #sample(long)}).
+ */
+public class TableProgress {
+
+    // Peso da amostra mais recente na média móvel exponencial da taxa
+    private static final double RATE_SMOOTHING = 0.3;
+
+    private final String table;
+    private final MigrationMetrics metrics;
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private volatile Long rowsEstimated;
+    private volatile boolean finished;
+
+    private long lastRows;
+    private long lastSampleNanos;
+    private double rate;
+
+    public TableProgress(String table, MigrationMetrics metrics) {
+        this.table = table;
+        this.metrics = metrics;
+    }
+
+    public String getTable() {
+        return table;
+    }
+
+    public MigrationMetrics getMetrics() {
+        return metrics;
+    }
+
+    public void addRows(long count) {
+        rows.add(count);
+    }
+
+    public void addBytes(long count) {
+        bytes.add(count);
+    }
+
+    public long getRows() {
+        return rows.sum();
+    }
+
+    public long getBytes() {
+        return bytes.sum();
+    }
+
+    public Long getRowsEstimated() {
+        return rowsEstimated;
+    }
+
+    public void setRowsEstimated(Long rowsEstimated) {
+        this.rowsEstimated = rowsEstimated;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    public void finish() {
+        this.finished = true;
+    }
+
+    public synchronized TableProgressDTO sample(long nanos) {
+        long done = rows.sum();
+        if (lastSampleNanos > 0 && nanos > lastSampleNanos) {
+            double current = (done - lastRows) * 1e9 / (nanos - lastSampleNanos);
+            rate = rate == 0 ? current : RATE_SMOOTHING * current + (1 - RATE_SMOOTHING) * rate;
+        }
+        lastRows = done;
+        lastSampleNanos = nanos;
+
+        Long estimated = rowsEstimated;
+        Long eta = null;
+        if (finished) {
+            rate = 0;
+            eta = 0L;
+        } else if (estimated != null && rate > 0) {
+            eta = (long) Math.ceil(Math.max(0, estimated - done) / rate);
+        }
+        return new TableProgressDTO(table, done, estimated, bytes.sum(), rate, eta, finished);
+    }
+}
@@ -4,6 +4,7 @@ import com.gabrielrq.database_converter.domain.DatabaseDefinition;
 import com.gabrielrq.database_converter.domain.MigrationStatusMetadata;
 import com.gabrielrq.database_converter.domain.TableDefinition;
 import com.gabrielrq.database_converter.dto.DbConnectionConfigDTO;
+import com.gabrielrq.database_converter.enums.ContentValidationMode;
 
 import java.util.List;
 
@@ -13,6 +14,10 @@ public class MigrationStatusMetadataBuilder {
     private List<TableDefinition> executionOrder;
     private DbConnectionConfigDTO originConfig;
     private DbConnectionConfigDTO targetConfig;
+    private boolean pipeMode;
+    private boolean fastLoad;
+    private boolean tolerantLoad;
+    private ContentValidationMode contentValidation = ContentValidationMode.NONE;
 
 
     public MigrationStatusMetadataBuilder setTarget(String target) {
@@ -40,7 +45,27 @@ public class MigrationStatusMetadataBuilder {
         return this;
     }
 
+    public MigrationStatusMetadataBuilder setPipeMode(boolean pipeMode) {
+        this.pipeMode = pipeMode;
+        return this;
+    }
+
+    public MigrationStatusMetadataBuilder setFastLoad(boolean fastLoad) {
+        this.fastLoad = fastLoad;
+        return this;
+    }
+
+    public MigrationStatusMetadataBuilder setTolerantLoad(boolean tolerantLoad) {
+        this.tolerantLoad = tolerantLoad;
+        return this;
+    }
+
+    public MigrationStatusMetadataBuilder setContentValidation(ContentValidationMode contentValidation) {
+        this.contentValidation = contentValidation != null ? contentValidation : ContentValidationMode.NONE;
+        return this;
+    }
+
     public MigrationStatusMetadata build() {
-        return new MigrationStatusMetadata(target, databaseMetadata, executionOrder, originConfig, targetConfig);
+        return new MigrationStatusMetadata(target, databaseMetadata, executionOrder, originConfig, targetConfig, pipeMode, fastLoad, tolerantLoad, contentValidation);
     }
 }
@@ -6,6 +6,7 @@ public record ConsistencyValidationDataDTO(
         boolean isConsistent,
         boolean areTablesOk,
         boolean areColumnsOk,
+        boolean isContentOk,
         List<String> messages
 ) {
 }
@@ -0,0 +1,16 @@
+package com.gabrielrq.database_converter.dto;
+
+import com.gabrielrq.database_converter.enums.EtlStep;
+
+import java.util.List;
+
+public record MigrationProgressDTO(
+        EtlStep step,
+        long rowsDone,
+        Long rowsEstimated,
+        long bytesDone,
+        double rowsPerSecond,
+        Long etaSeconds,
+        List<TableProgressDTO> tables
+) {
+}
@@ -3,6 +3,7 @@ package com.gabrielrq.database_converter.dto;
 import com.gabrielrq.database_converter.enums.EtlStep;
 
 import java.time.LocalDateTime;
+import java.util.Map;
 import java.util.UUID;
 
 public record MigrationStatusDTO(
@@ -12,6 +13,8 @@ public record MigrationStatusDTO(
         String message,
         LocalDateTime startedAt,
         LocalDateTime finishedAt,
-        LocalDateTime lastUpdatedAt
+        LocalDateTime lastUpdatedAt,
+        Map<String, Long> rejectedRows,
+        MigrationProgressDTO progress
 ) {
 }
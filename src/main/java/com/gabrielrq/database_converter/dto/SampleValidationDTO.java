@@ -0,0 +1,10 @@
+package com.gabrielrq.database_converter.dto;
+
+public record SampleValidationDTO(
+        String method,
+        long sampledRows,
+        long mismatchedRows,
+        double confidence,
+        double maxMismatchRate
+) {
+}
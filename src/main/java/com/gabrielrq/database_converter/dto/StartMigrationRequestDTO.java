@@ -1,10 +1,16 @@
 package com.gabrielrq.database_converter.dto;
 
+import com.gabrielrq.database_converter.enums.ContentValidationMode;
+
 public record StartMigrationRequestDTO(
         String name,
         String target,
         DbConnectionConfigDTO originConfig,
-        DbConnectionConfigDTO targetConfig
+        DbConnectionConfigDTO targetConfig,
+        boolean pipeMode,
+        boolean fastLoad,
+        boolean tolerantLoad,
+        ContentValidationMode contentValidation
 ) {
 
 }
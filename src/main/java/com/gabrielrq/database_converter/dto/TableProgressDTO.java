@@ -0,0 +1,12 @@
+package com.gabrielrq.database_converter.dto;
+
+public record TableProgressDTO(
+        String table,
+        long rowsDone,
+        Long rowsEstimated,
+        long bytesDone,
+        double rowsPerSecond,
+        Long etaSeconds,
+        boolean finished
+) {
+}
@@ -0,0 +1,14 @@
+package com.gabrielrq.database_converter.dto;
+
+import java.util.List;
+
+public record TableValidationResultDTO(
+        String table,
+        Long originRowCount,
+        Long targetRowCount,
+        List<String> structuralMessages,
+        List<String> volumetricMessages,
+        List<String> contentMessages,
+        SampleValidationDTO sample
+) {
+}
@@ -0,0 +1,7 @@
+package com.gabrielrq.database_converter.enums;
+
+public enum ContentValidationMode {
+    NONE,
+    CHECKSUM,
+    SAMPLING
+}
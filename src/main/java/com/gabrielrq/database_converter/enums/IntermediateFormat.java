@@ -0,0 +1,20 @@
+package com.gabrielrq.database_converter.enums;
+
+public enum IntermediateFormat {
+    JSON(".json"),
+    BINARY(".bin");
+
+    private final String extension;
+
+    IntermediateFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public static IntermediateFormat fromFilename(String filename) {
+        return filename.endsWith(BINARY.extension) ? BINARY : JSON;
+    }
+}
@@ -0,0 +1,16 @@
+package com.gabrielrq.database_converter.event;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Registered;
+
+@Name("database_converter.Commit")
+@Label("Commit")
+@Description("Confirmação da transação de carga de uma tabela ou segmento")
+@Registered(false)
+public class CommitEvent extends MigrationEvent {
+
+    @Label("Stage")
+    public String stage;
+}
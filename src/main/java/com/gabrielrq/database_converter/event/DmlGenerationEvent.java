@@ -0,0 +1,13 @@
+package com.gabrielrq.database_converter.event;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Registered;
+
+@Name("database_converter.DmlGeneration")
+@Label("DML Generation")
+@Description("Geração do script DML de uma tabela; os bytes são os dos segmentos lidos")
+@Registered(false)
+public class DmlGenerationEvent extends MigrationEvent {
+}
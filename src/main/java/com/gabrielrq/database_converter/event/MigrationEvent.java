@@ -0,0 +1,30 @@
+package com.gabrielrq.database_converter.event;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Base dos eventos JFR da migração. As subclasses não são registradas automaticamente: só produzem dados quando
+ * {@code migration.jfr.enabled} está ativo (ver {@link com.gabrielrq.database_converter.config.JfrConfig}); sem
+ * registro, {@code shouldCommit()} retorna falso e o evento não tem custo mensurável.
+ */
+@Category({"Database Converter", "Migration"})
+@StackTrace(false)
+public abstract class MigrationEvent extends Event {
+
+    @Label("Migration Id")
+    public String migrationId;
+
+    @Label("Table")
+    public String table;
+
+    @Label("Rows")
+    public long rows;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+}
@@ -0,0 +1,36 @@
+package com.gabrielrq.database_converter.event;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Registered;
+
+@Name("database_converter.RowBatch")
+@Label("Row Batch")
+@Description("Bloco de linhas lido da origem e escrito no segmento intermediário")
+@Registered(false)
+public class RowBatchEvent extends MigrationEvent {
+
+    @Label("Segment")
+    public String segment;
+
+    public static RowBatchEvent begin(String migrationId, String table, String segment) {
+        RowBatchEvent event = new RowBatchEvent();
+        event.migrationId = migrationId;
+        event.table = table;
+        event.segment = segment;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Encerra o bloco com {@code rows} linhas e inicia o próximo.
+     */
+    public RowBatchEvent next(long rows) {
+        if (shouldCommit()) {
+            this.rows = rows;
+            commit();
+        }
+        return begin(migrationId, table, segment);
+    }
+}
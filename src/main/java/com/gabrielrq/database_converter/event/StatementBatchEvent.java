@@ -0,0 +1,16 @@
+package com.gabrielrq.database_converter.event;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Registered;
+
+@Name("database_converter.StatementBatch")
+@Label("Statement Batch")
+@Description("Lote enviado ao destino, incluindo as subdivisões de um lote com erro")
+@Registered(false)
+public class StatementBatchEvent extends MigrationEvent {
+
+    @Label("Stage")
+    public String stage;
+}
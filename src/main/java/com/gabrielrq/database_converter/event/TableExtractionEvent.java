@@ -0,0 +1,16 @@
+package com.gabrielrq.database_converter.event;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Registered;
+
+@Name("database_converter.TableExtraction")
+@Label("Table Extraction")
+@Description("Extração de uma tabela, do início do primeiro segmento à conclusão do último")
+@Registered(false)
+public class TableExtractionEvent extends MigrationEvent {
+
+    @Label("Segments")
+    public int segments;
+}
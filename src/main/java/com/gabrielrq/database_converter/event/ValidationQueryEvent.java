@@ -0,0 +1,19 @@
+package com.gabrielrq.database_converter.event;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Registered;
+
+@Name("database_converter.ValidationQuery")
+@Label("Validation Query")
+@Description("Consulta da validação de consistência: contagem de linhas ou comparação de conteúdo")
+@Registered(false)
+public class ValidationQueryEvent extends MigrationEvent {
+
+    @Label("Query")
+    public String query;
+
+    @Label("Database")
+    public String role;
+}
@@ -0,0 +1,11 @@
+package com.gabrielrq.database_converter.exception;
+
+public class BinaryFormatException extends RuntimeException {
+    public BinaryFormatException(String message) {
+        super(message);
+    }
+
+    public BinaryFormatException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
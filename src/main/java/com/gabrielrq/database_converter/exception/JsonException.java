@@ -4,4 +4,8 @@ public class JsonException extends RuntimeException {
     public JsonException(String message) {
         super(message);
     }
+
+    public JsonException(String message, Throwable cause) {
+        super(message, cause);
+    }
 }
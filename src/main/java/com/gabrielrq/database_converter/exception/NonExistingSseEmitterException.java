@@ -1,7 +0,0 @@
-package com.gabrielrq.database_converter.exception;
-
-public class NonExistingSseEmitterException extends RuntimeException {
-    public NonExistingSseEmitterException(String message) {
-        super(message);
-    }
-}
@@ -1,7 +0,0 @@
-package com.gabrielrq.database_converter.exception;
-
-public class SseException extends RuntimeException {
-    public SseException(String message) {
-        super(message);
-    }
-}
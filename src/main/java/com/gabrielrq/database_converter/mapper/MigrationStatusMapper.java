@@ -3,6 +3,8 @@ package com.gabrielrq.database_converter.mapper;
 import com.gabrielrq.database_converter.domain.MigrationStatus;
 import com.gabrielrq.database_converter.dto.MigrationStatusDTO;
 
+import java.util.Map;
+
 public class MigrationStatusMapper {
 
     public static MigrationStatusDTO toMigrationStatusDTO(MigrationStatus status) {
@@ -13,7 +15,9 @@ public class MigrationStatusMapper {
                 status.getMessage(),
                 status.getStartedAt(),
                 status.getFinishedAt(),
-                status.getLastUpdated()
+                status.getLastUpdated(),
+                status.getMetadata() != null ? status.getMetadata().getRejectedRows() : Map.of(),
+                status.getMetadata() != null ? status.getMetadata().getProgress().getSnapshot() : null
         );
     }
 }
@@ -0,0 +1,29 @@
+package com.gabrielrq.database_converter.repository;
+
+import com.gabrielrq.database_converter.service.SseChannel;
+import org.springframework.stereotype.Repository;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+@Repository
+public class SseChannelRepository {
+    Map<UUID, SseChannel> repo = new ConcurrentHashMap<>();
+
+    public SseChannel find(UUID id) {
+        return repo.get(id);
+    }
+
+    public SseChannel findOrCreate(UUID id, Supplier<SseChannel> factory) {
+        return repo.computeIfAbsent(id, key -> factory.get());
+    }
+
+    /**
+     * Remove o canal, desde que ainda seja o registrado para a migração.
+     */
+    public void delete(UUID id, SseChannel channel) {
+        repo.remove(id, channel);
+    }
+}
@@ -0,0 +1,314 @@
+package com.gabrielrq.database_converter.service;
+
+import com.gabrielrq.database_converter.domain.SegmentStats;
+import com.gabrielrq.database_converter.enums.IntermediateFormat;
+import com.gabrielrq.database_converter.exception.BinaryFormatException;
+import com.gabrielrq.database_converter.util.TimedOutputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongConsumer;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Formato intermediário binário das tabelas extraídas.
+ * <p>
+ * Layout: cabeçalho ({@code MAGIC}, quantidade de colunas, nome e tipo JDBC de cada coluna), seguido das linhas.
+ * Cada linha começa com {@link #ROW} e cada valor é prefixado por uma tag de tipo; inteiros usam varint zigzag,
+ * textos e LOBs são prefixados pelo tamanho e textos curtos repetidos são codificados por dicionário.
+ * O arquivo termina com {@link #END}.
+ */
+@Service
+public class BinaryTableService {
+
+    private static final int MAGIC = 0x44434231; // "DCB1"
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int MAX_DICTIONARY_SIZE = 1 << 16;
+    private static final int MAX_DICTIONARY_STRING_LENGTH = 64;
+
+    private static final byte END = 0;
+    private static final byte ROW = 1;
+
+    private static final byte NULL = 0;
+    private static final byte LONG = 1;
+    private static final byte DOUBLE = 2;
+    private static final byte FLOAT = 3;
+    private static final byte DECIMAL = 4;
+    private static final byte TRUE = 5;
+    private static final byte FALSE = 6;
+    private static final byte STRING = 7;
+    private static final byte STRING_REF = 8;
+    private static final byte STRING_DEF = 9;
+    private static final byte BYTES = 10;
+
+    @Value("${migration.data.path}")
+    private String basePath;
+
+    public SegmentStats writeStream(ResultSet rs, String filename, LongConsumer rowProgress) {
+        Path outputFile = Path.of(basePath).resolve(filename + IntermediateFormat.BINARY.getExtension());
+
+        try {
+            long fetchStart = System.nanoTime();
+            if (!rs.next()) {
+                return SegmentStats.EMPTY;
+            }
+            long fetchNanos = System.nanoTime() - fetchStart;
+
+            ResultSetMetaData metadata = rs.getMetaData();
+            int columns = metadata.getColumnCount();
+            Files.createDirectories(outputFile.getParent());
+
+            long rowCount = 0;
+            CRC32C checksum = new CRC32C();
+            long writeStart = System.nanoTime();
+            TimedOutputStream disk = new TimedOutputStream(Files.newOutputStream(outputFile));
+            try (disk; DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new CheckedOutputStream(disk, checksum), BUFFER_SIZE))) {
+                out.writeInt(MAGIC);
+                writeVarLong(out, columns);
+                int[] types = new int[columns];
+                for (int i = 1; i <= columns; i++) {
+                    types[i - 1] = metadata.getColumnType(i);
+                    writeBytes(out, metadata.getColumnName(i).getBytes(StandardCharsets.UTF_8));
+                    writeVarLong(out, types[i - 1]);
+                }
+
+                Map<String, Integer> dictionary = new HashMap<>();
+                boolean hasNext;
+                do {
+                    out.writeByte(ROW);
+                    for (int i = 1; i <= columns; i++) {
+                        writeValue(out, rs, i, types[i - 1], dictionary);
+                    }
+                    if (++rowCount % TableDataService.PROGRESS_ROWS == 0) {
+                        rowProgress.accept(TableDataService.PROGRESS_ROWS);
+                    }
+
+                    fetchStart = System.nanoTime();
+                    hasNext = rs.next();
+                    fetchNanos += System.nanoTime() - fetchStart;
+                } while (hasNext);
+                rowProgress.accept(rowCount % TableDataService.PROGRESS_ROWS);
+
+                out.writeByte(END);
+            }
+            long encodeNanos = System.nanoTime() - writeStart - fetchNanos - disk.getNanos();
+
+            return new SegmentStats(rowCount, Files.size(outputFile), Long.toHexString(checksum.getValue()),
+                    fetchNanos, Math.max(0, encodeNanos), disk.getNanos());
+        } catch (IOException | SQLException e) {
+            throw new BinaryFormatException("Erro ao escrever arquivo binário. Detalhes: " + e.getMessage(), e);
+        }
+    }
+
+    public long streamTableData(Path tablePath, RowHandler handler) throws IOException {
+        if (!Files.exists(tablePath)) {
+            throw new FileNotFoundException("File '" + tablePath + "' not found");
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(tablePath), BUFFER_SIZE))) {
+            if (in.readInt() != MAGIC) {
+                throw new BinaryFormatException("Arquivo '" + tablePath + "' não está no formato binário esperado.");
+            }
+
+            int columns = (int) readVarLong(in);
+            String[] columnNames = new String[columns];
+            for (int i = 0; i < columns; i++) {
+                columnNames[i] = new String(readBytes(in), StandardCharsets.UTF_8);
+                readVarLong(in); // tipo JDBC, reservado para leitores tipados
+            }
+
+            long rowCount = 0;
+            List<String> dictionary = new ArrayList<>();
+            while (in.readByte() == ROW) {
+                Map<String, Object> row = LinkedHashMap.newLinkedHashMap(columns);
+                for (String columnName : columnNames) {
+                    row.put(columnName, readValue(in, dictionary));
+                }
+                handler.handle(row);
+                rowCount++;
+            }
+            return rowCount;
+        }
+    }
+
+    private void writeValue(DataOutputStream out, ResultSet rs, int index, int type, Map<String, Integer> dictionary) throws SQLException, IOException {
+        switch (type) {
+            case Types.INTEGER, Types.SMALLINT, Types.TINYINT, Types.BIGINT -> {
+                long value = rs.getLong(index);
+                if (rs.wasNull()) {
+                    out.writeByte(NULL);
+                } else {
+                    out.writeByte(LONG);
+                    writeVarLong(out, value);
+                }
+            }
+            case Types.DOUBLE, Types.FLOAT -> {
+                double value = rs.getDouble(index);
+                if (rs.wasNull()) {
+                    out.writeByte(NULL);
+                } else {
+                    out.writeByte(DOUBLE);
+                    out.writeDouble(value);
+                }
+            }
+            case Types.REAL -> {
+                float value = rs.getFloat(index);
+                if (rs.wasNull()) {
+                    out.writeByte(NULL);
+                } else {
+                    out.writeByte(FLOAT);
+                    out.writeFloat(value);
+                }
+            }
+            case Types.BOOLEAN -> {
+                boolean value = rs.getBoolean(index);
+                out.writeByte(rs.wasNull() ? NULL : value ? TRUE : FALSE);
+            }
+            case Types.NUMERIC, Types.DECIMAL -> writeObject(out, rs.getBigDecimal(index), dictionary);
+            case Types.DATE -> {
+                Date date = rs.getDate(index);
+                writeString(out, date != null ? date.toLocalDate().toString() : null, dictionary);
+            }
+            case Types.TIMESTAMP, Types.TIMESTAMP_WITH_TIMEZONE -> {
+                Timestamp ts = rs.getTimestamp(index);
+                writeString(out, ts != null ? ts.toInstant().toString() : null, dictionary);
+            }
+            case Types.CLOB -> {
+                Clob clob = rs.getClob(index);
+                writeString(out, clob != null ? clob.getSubString(1L, (int) clob.length()) : null, dictionary);
+            }
+            case Types.BLOB, Types.BINARY, Types.VARBINARY, Types.LONGVARBINARY -> writeObject(out, rs.getBytes(index), dictionary);
+            case Types.CHAR, Types.VARCHAR, Types.LONGVARCHAR, Types.NCHAR, Types.NVARCHAR, Types.LONGNVARCHAR ->
+                    writeString(out, rs.getString(index), dictionary);
+            default -> writeObject(out, rs.getObject(index), dictionary);
+        }
+    }
+
+    private void writeObject(DataOutputStream out, Object value, Map<String, Integer> dictionary) throws IOException {
+        switch (value) {
+            case null -> out.writeByte(NULL);
+            case Long l -> {
+                out.writeByte(LONG);
+                writeVarLong(out, l);
+            }
+            case Integer i -> {
+                out.writeByte(LONG);
+                writeVarLong(out, i);
+            }
+            case Short s -> {
+                out.writeByte(LONG);
+                writeVarLong(out, s);
+            }
+            case Double d -> {
+                out.writeByte(DOUBLE);
+                out.writeDouble(d);
+            }
+            case Float f -> {
+                out.writeByte(FLOAT);
+                out.writeFloat(f);
+            }
+            case BigDecimal bd -> {
+                out.writeByte(DECIMAL);
+                writeBytes(out, bd.toString().getBytes(StandardCharsets.US_ASCII));
+            }
+            case Boolean b -> out.writeByte(b ? TRUE : FALSE);
+            case byte[] bytes -> {
+                out.writeByte(BYTES);
+                writeBytes(out, bytes);
+            }
+            default -> writeString(out, value.toString(), dictionary);
+        }
+    }
+
+    private void writeString(DataOutputStream out, String value, Map<String, Integer> dictionary) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+            return;
+        }
+
+        if (value.length() > MAX_DICTIONARY_STRING_LENGTH) {
+            out.writeByte(STRING);
+            writeBytes(out, value.getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+
+        Integer ref = dictionary.get(value);
+        if (ref != null) {
+            out.writeByte(STRING_REF);
+            writeVarLong(out, ref);
+        } else if (dictionary.size() < MAX_DICTIONARY_SIZE) {
+            dictionary.put(value, dictionary.size());
+            out.writeByte(STRING_DEF);
+            writeBytes(out, value.getBytes(StandardCharsets.UTF_8));
+        } else {
+            out.writeByte(STRING);
+            writeBytes(out, value.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private Object readValue(DataInputStream in, List<String> dictionary) throws IOException {
+        byte tag = in.readByte();
+        return switch (tag) {
+            case NULL -> null;
+            case LONG -> readVarLong(in);
+            case DOUBLE -> in.readDouble();
+            case FLOAT -> in.readFloat();
+            case DECIMAL -> new BigDecimal(new String(readBytes(in), StandardCharsets.US_ASCII));
+            case TRUE -> Boolean.TRUE;
+            case FALSE -> Boolean.FALSE;
+            case STRING -> new String(readBytes(in), StandardCharsets.UTF_8);
+            case STRING_REF -> dictionary.get((int) readVarLong(in));
+            case STRING_DEF -> {
+                String value = new String(readBytes(in), StandardCharsets.UTF_8);
+                dictionary.add(value);
+                yield value;
+            }
+            case BYTES -> readBytes(in);
+            default -> throw new BinaryFormatException("Tag de valor desconhecida no arquivo binário: " + tag);
+        };
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        writeVarLong(out, bytes.length);
+        out.write(bytes);
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[(int) readVarLong(in)];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        long zigzag = (value << 1) ^ (value >> 63);
+        while ((zigzag & ~0x7FL) != 0) {
+            out.writeByte((int) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+        out.writeByte((int) zigzag);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long zigzag = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = in.readByte();
+            zigzag |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+}
@@ -1,111 +1,268 @@
 package com.gabrielrq.database_converter.service;
 
+import com.gabrielrq.database_converter.domain.ColumnDefinition;
 import com.gabrielrq.database_converter.domain.DatabaseDefinition;
+import com.gabrielrq.database_converter.domain.MigrationMetrics;
 import com.gabrielrq.database_converter.domain.TableDefinition;
 import com.gabrielrq.database_converter.dto.ConsistencyValidationDataDTO;
 import com.gabrielrq.database_converter.dto.DbConnectionConfigDTO;
+import com.gabrielrq.database_converter.dto.SampleValidationDTO;
+import com.gabrielrq.database_converter.dto.TableValidationResultDTO;
+import com.gabrielrq.database_converter.enums.ContentValidationMode;
+import com.gabrielrq.database_converter.event.ValidationQueryEvent;
 import com.gabrielrq.database_converter.exception.ConsistencyValidationException;
 import com.gabrielrq.database_converter.service.etl.DataExtractionService;
+import com.gabrielrq.database_converter.util.ThreadPoolSizes;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
 import java.sql.Connection;
 import java.sql.SQLException;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
-import java.util.Objects;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+/**
+ * Validação de consistência entre origem e destino.
+ * <p>
+ * A estrutura é comparada por índices de nomes (sem diferenciar maiúsculas e minúsculas). As contagens de linhas
+ * são feitas em paralelo nas duas bases, usando as conexões do pool, e o resultado de cada tabela é entregue ao
+ * consumidor assim que fica pronto. Opcionalmente, o conteúdo das tabelas é comparado por somas de verificação
+ * ({@link ContentValidationService}) ou por amostragem ({@link SampleValidationService}).
+ */
 @Service
 public class ConsistencyValidationService {
 
+    @Value("${migration.validation.threads:0}")
+    private int validationThreads;
+
     private final DataExtractionService extractionService;
+    private final DatabaseConnectionService connectionService;
+    private final ContentValidationService contentValidationService;
+    private final SampleValidationService sampleValidationService;
 
-    public ConsistencyValidationService(DataExtractionService extractionService) {
+    public ConsistencyValidationService(
+            DataExtractionService extractionService,
+            DatabaseConnectionService connectionService,
+            ContentValidationService contentValidationService,
+            SampleValidationService sampleValidationService
+    ) {
         this.extractionService = extractionService;
+        this.connectionService = connectionService;
+        this.contentValidationService = contentValidationService;
+        this.sampleValidationService = sampleValidationService;
     }
 
-    private List<String> compareStructure(DatabaseDefinition originMetadata, DatabaseDefinition targetMetadata) {
-        List<String> messages = new ArrayList<>();
-        Map<String, TableDefinition> targetTableMap = targetMetadata.tables()
-                .stream().collect(Collectors.toMap(t -> t.name().toLowerCase(), Function.identity()));
+    private static Map<String, TableDefinition> indexTables(DatabaseDefinition metadata) {
+        return metadata.tables().stream()
+                .collect(Collectors.toMap(t -> t.name().toLowerCase(), Function.identity(), (a, b) -> a));
+    }
 
-        for (var table : originMetadata.tables()) {
-            if (!targetMetadata.tables().contains(table)) {
-                messages.add("Falha estrutural: tabela '%s' não encontrada na base de dados destino.".formatted(table.name()));
-                continue;
-            }
+    private List<String> compareStructure(TableDefinition table, TableDefinition targetTable) {
+        if (targetTable == null) {
+            return List.of("Falha estrutural: tabela '%s' não encontrada na base de dados destino.".formatted(table.name()));
+        }
 
-            var targetTable = targetTableMap.get(table.name());
-            for (var column : table.columns()) {
-                if (!targetTable.columns().contains(column)) {
-                    messages.add("Falha estrutural: coluna '%s.%s' não encontrada na base de dados destino.".formatted(table.name(), column.name()));
-                }
+        Map<String, ColumnDefinition> targetColumns = targetTable.columns().stream()
+                .collect(Collectors.toMap(c -> c.name().toLowerCase(), Function.identity(), (a, b) -> a));
+
+        List<String> messages = new ArrayList<>();
+        for (var column : table.columns()) {
+            // Mesma regra de ColumnDefinition.equals: nome sem diferenciar maiúsculas e mesmo tipo genérico
+            ColumnDefinition targetColumn = targetColumns.get(column.name().toLowerCase());
+            if (targetColumn == null || !targetColumn.genericType().equals(column.genericType())) {
+                messages.add("Falha estrutural: coluna '%s.%s' não encontrada na base de dados destino.".formatted(table.name(), column.name()));
             }
         }
-
         return messages;
     }
 
-    private List<String> compareRowCounts(
-            DatabaseDefinition originMetadata,
-            DatabaseDefinition targetMetadata,
+    private TableValidationResultDTO compareTable(
+            TableDefinition table,
+            TableDefinition targetTable,
+            List<String> structuralMessages,
+            DbConnectionConfigDTO originConfig,
+            DbConnectionConfigDTO targetConfig,
+            ContentValidationMode contentValidation,
             JdbcTemplate originTemplate,
-            JdbcTemplate targetTemplate
+            JdbcTemplate targetTemplate,
+            ExecutorService executor,
+            MigrationMetrics metrics
     ) {
-        List<String> messages = new ArrayList<>();
-        Map<String, TableDefinition> targetTableMap = targetMetadata.tables()
-                .stream().collect(Collectors.toMap(t -> t.name().toLowerCase(), Function.identity()));
+        long start = System.nanoTime();
+        TableValidationResultDTO result = compareRowCounts(table, targetTable, structuralMessages, originTemplate, targetTemplate, executor, metrics.getMigrationId());
+        metrics.recordStage("validate.count", table.name(), System.nanoTime() - start);
+        // Diferenças estruturais tornam a comparação de conteúdo inconclusiva
+        if (contentValidation == ContentValidationMode.NONE || !structuralMessages.isEmpty()) {
+            return result;
+        }
 
-        for (var table : originMetadata.tables()) {
-            if (!targetMetadata.tables().contains(table)) {
-                continue;
+        List<String> contentMessages;
+        SampleValidationDTO sample = null;
+        start = System.nanoTime();
+        ValidationQueryEvent event = new ValidationQueryEvent();
+        event.begin();
+        try {
+            if (contentValidation == ContentValidationMode.SAMPLING) {
+                SampleValidationService.Outcome outcome = sampleValidationService.compare(table, targetTable, originConfig, targetConfig, result.originRowCount());
+                contentMessages = outcome.messages();
+                sample = outcome.summary();
+            } else {
+                contentMessages = contentValidationService.compare(table, targetTable, originConfig, targetConfig, executor);
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConsistencyValidationException("Validação de consistência interrompida.");
+        } catch (Exception e) {
+            contentMessages = List.of("Falha de conteúdo: erro ao comparar o conteúdo da tabela '%s'. Detalhes: %s".formatted(table.name(), e.getMessage()));
+        }
+        metrics.recordStage("validate.content", table.name(), System.nanoTime() - start);
+        if (event.shouldCommit()) {
+            event.migrationId = metrics.getMigrationId();
+            event.table = table.name();
+            event.query = contentValidation.name();
+            event.role = "origin+target";
+            event.rows = sample != null ? sample.sampledRows() : Objects.requireNonNullElse(result.originRowCount(), 0L);
+            event.commit();
+        }
+        return new TableValidationResultDTO(result.table(), result.originRowCount(), result.targetRowCount(),
+                result.structuralMessages(), result.volumetricMessages(), contentMessages, sample);
+    }
 
-            try {
-                var targetTable = targetTableMap.get(table.name());
-                Long originRowCount = originTemplate.queryForObject("SELECT COUNT(*) FROM " + table.name(), Long.class);
-                Long targetRowCount = targetTemplate.queryForObject("SELECT COUNT(*) FROM " + targetTable.name(), Long.class);
+    private TableValidationResultDTO compareRowCounts(
+            TableDefinition table,
+            TableDefinition targetTable,
+            List<String> structuralMessages,
+            JdbcTemplate originTemplate,
+            JdbcTemplate targetTemplate,
+            ExecutorService executor,
+            String migrationId
+    ) {
+        try {
+            Future<Long> originCount = executor.submit(() -> countRows(originTemplate, table.name(), "origin", migrationId));
+            Long targetRowCount = countRows(targetTemplate, targetTable.name(), "target", migrationId);
+            Long originRowCount = originCount.get();
 
-                if (!Objects.equals(originRowCount, targetRowCount)) {
-                    messages.add("Falha volumétrica: quantia de linhas inconsistente para tabela '%s'. Esperava %d, encontrou %d.".formatted(table.name(), originRowCount, targetRowCount));
-                }
-            } catch (Exception e) {
-                messages.add("Falha volumétrica: erro ao obter quantia de linhas para a tabela '%s'.".formatted(table.name()));
-            }
+            List<String> messages = Objects.equals(originRowCount, targetRowCount)
+                    ? List.of()
+                    : List.of("Falha volumétrica: quantia de linhas inconsistente para tabela '%s'. Esperava %d, encontrou %d.".formatted(table.name(), originRowCount, targetRowCount));
+            return new TableValidationResultDTO(table.name(), originRowCount, targetRowCount, structuralMessages, messages, List.of(), null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConsistencyValidationException("Validação de consistência interrompida.");
+        } catch (Exception e) {
+            return new TableValidationResultDTO(table.name(), null, null, structuralMessages,
+                    List.of("Falha volumétrica: erro ao obter quantia de linhas para a tabela '%s'.".formatted(table.name())), List.of(), null);
         }
-
-        return messages;
     }
 
+    private static Long countRows(JdbcTemplate template, String table, String role, String migrationId) {
+        ValidationQueryEvent event = new ValidationQueryEvent();
+        event.begin();
+        Long count = template.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+        if (event.shouldCommit()) {
+            event.migrationId = migrationId;
+            event.table = table;
+            event.query = "COUNT";
+            event.role = role;
+            event.rows = count != null ? count : 0;
+            event.commit();
+        }
+        return count;
+    }
 
-    public ConsistencyValidationDataDTO validate(DbConnectionConfigDTO originConfig, DbConnectionConfigDTO targetConfig) {
-        try (
-                Connection originConnection = DatabaseConnectionService.createConnection(originConfig);
-                Connection targetConnection = DatabaseConnectionService.createConnection(targetConfig)
-        ) {
-            var originMetadata = extractionService.parseMetadata(originConfig.name(), originConnection);
-            var targetMetadata = extractionService.parseMetadata(targetConfig.name(), targetConnection);
-
-            var structuralValidationMessages = compareStructure(originMetadata, targetMetadata);
-            var volumetricValidationMessages = compareRowCounts(
-                    originMetadata,
-                    targetMetadata,
-                    DatabaseConnectionService.createJdbcTemplate(originConfig),
-                    DatabaseConnectionService.createJdbcTemplate(targetConfig)
-            );
-
-            return new ConsistencyValidationDataDTO(
-                    structuralValidationMessages.isEmpty() && volumetricValidationMessages.isEmpty(),
-                    structuralValidationMessages.isEmpty(),
-                    volumetricValidationMessages.isEmpty(),
-                    Stream.concat(structuralValidationMessages.stream(), volumetricValidationMessages.stream()).toList()
-            );
+    /**
+     * Valida a consistência da carga. Quando informado, {@code originMetadata} é reaproveitado em vez de ler
+     * novamente os metadados da origem. Cada resultado por tabela é enviado a {@code onTableResult} ao terminar.
+     * Conforme {@code contentValidation}, o conteúdo das tabelas sem diferenças estruturais também é comparado, por
+     * completo (somas de verificação) ou por amostragem. O tempo de cada comparação é registrado em {@code metrics}.
+     */
+    public ConsistencyValidationDataDTO validate(
+            DatabaseDefinition originMetadata,
+            DbConnectionConfigDTO originConfig,
+            DbConnectionConfigDTO targetConfig,
+            ContentValidationMode contentValidation,
+            MigrationMetrics metrics,
+            Consumer<TableValidationResultDTO> onTableResult
+    ) {
+        DatabaseDefinition targetMetadata;
+        try (Connection targetConnection = connectionService.createConnection(targetConfig)) {
+            targetMetadata = extractionService.parseMetadata(targetConfig.name(), targetConnection);
+            if (originMetadata == null) {
+                try (Connection originConnection = connectionService.createConnection(originConfig)) {
+                    originMetadata = extractionService.parseMetadata(originConfig.name(), originConnection);
+                }
+            }
         } catch (SQLException e) {
             throw new ConsistencyValidationException("Erro ao realizar validação de consistência. Detalhes: " + e.getMessage());
         }
+
+        Map<String, TableDefinition> targetTableMap = indexTables(targetMetadata);
+        JdbcTemplate originTemplate = connectionService.createJdbcTemplate(originConfig);
+        JdbcTemplate targetTemplate = connectionService.createJdbcTemplate(targetConfig);
+
+        // Metade das threads conta no destino e metade, em paralelo, na origem
+        int poolSize = ThreadPoolSizes.validation(validationThreads);
+        ExecutorService tableExecutor = Executors.newFixedThreadPool(Math.max(1, poolSize / 2));
+        ExecutorService originExecutor = Executors.newFixedThreadPool(Math.max(1, poolSize / 2));
+
+        Map<String, TableValidationResultDTO> results = new HashMap<>();
+        try {
+            CompletionService<TableValidationResultDTO> completion = new ExecutorCompletionService<>(tableExecutor);
+            int pending = 0;
+            for (var table : originMetadata.tables()) {
+                TableDefinition targetTable = targetTableMap.get(table.name().toLowerCase());
+                List<String> structuralMessages = compareStructure(table, targetTable);
+
+                if (targetTable == null) {
+                    TableValidationResultDTO result = new TableValidationResultDTO(table.name(), null, null, structuralMessages, List.of(), List.of(), null);
+                    results.put(table.name(), result);
+                    onTableResult.accept(result);
+                    continue;
+                }
+
+                completion.submit(() -> compareTable(table, targetTable, structuralMessages, originConfig, targetConfig, contentValidation, originTemplate, targetTemplate, originExecutor, metrics));
+                pending++;
+            }
+
+            for (; pending > 0; pending--) {
+                TableValidationResultDTO result = completion.take().get();
+                results.put(result.table(), result);
+                onTableResult.accept(result);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConsistencyValidationException("Validação de consistência interrompida.");
+        } catch (ExecutionException e) {
+            throw new ConsistencyValidationException("Erro ao realizar validação de consistência. Detalhes: " + e.getCause().getMessage());
+        } finally {
+            tableExecutor.shutdownNow();
+            originExecutor.shutdownNow();
+            tableExecutor.close();
+            originExecutor.close();
+        }
+
+        // Mensagens na ordem das tabelas da origem, independentemente da ordem de conclusão
+        List<String> structuralValidationMessages = new ArrayList<>();
+        List<String> volumetricValidationMessages = new ArrayList<>();
+        List<String> contentValidationMessages = new ArrayList<>();
+        for (var table : originMetadata.tables()) {
+            TableValidationResultDTO result = results.get(table.name());
+            structuralValidationMessages.addAll(result.structuralMessages());
+            volumetricValidationMessages.addAll(result.volumetricMessages());
+            contentValidationMessages.addAll(result.contentMessages());
+        }
+
+        return new ConsistencyValidationDataDTO(
+                structuralValidationMessages.isEmpty() && volumetricValidationMessages.isEmpty() && contentValidationMessages.isEmpty(),
+                structuralValidationMessages.isEmpty(),
+                volumetricValidationMessages.isEmpty(),
+                contentValidationMessages.isEmpty(),
+                Stream.of(structuralValidationMessages, volumetricValidationMessages, contentValidationMessages).flatMap(List::stream).toList()
+        );
     }
 }
@@ -0,0 +1,279 @@
+package com.gabrielrq.database_converter.service;
+
+import com.gabrielrq.database_converter.domain.ColumnDefinition;
+import com.gabrielrq.database_converter.domain.ExtractionChunk;
+import com.gabrielrq.database_converter.domain.TableDefinition;
+import com.gabrielrq.database_converter.dto.DbConnectionConfigDTO;
+import com.gabrielrq.database_converter.util.ValueNormalizer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Validação do conteúdo das tabelas por somas de verificação, em níveis: intervalo de chave, balde e linha.
+ * <p>
+ * Tabelas com chave primária simples e inteira são divididas em intervalos de chave; as demais formam um único
+ * intervalo. Cada intervalo é lido uma vez em cada base, em paralelo, e as linhas são agrupadas em baldes pela
+ * chave; cada balde acumula a soma dos hashes (MD5) das linhas normalizadas, o que dispensa {@code ORDER BY} e
+ * diferenças de ordenação entre os bancos. Apenas os baldes divergentes são lidos novamente para identificar as
+ * chaves com diferença. Tabelas sem chave primária não são validadas por conteúdo.
+ */
+@Service
+public class ContentValidationService {
+
+    private static final int MAX_RANGES = 4096;
+
+    @Value("${migration.validation.content.chunkRows:100000}")
+    private long chunkRows;
+    @Value("${migration.validation.content.buckets:16}")
+    private int buckets;
+    @Value("${migration.validation.content.maxReportedKeys:100}")
+    private int maxReportedKeys;
+    @Value("${migration.extract.fetchSize:0}")
+    private int fetchSize;
+
+    private final DatabaseConnectionService connectionService;
+
+    public ContentValidationService(DatabaseConnectionService connectionService) {
+        this.connectionService = connectionService;
+    }
+
+    public List<String> compare(
+            TableDefinition table,
+            TableDefinition targetTable,
+            DbConnectionConfigDTO originConfig,
+            DbConnectionConfigDTO targetConfig,
+            ExecutorService originExecutor
+    ) throws SQLException, InterruptedException {
+        if (table.primaryKeyColumns().isEmpty()) {
+            return List.of();
+        }
+
+        List<String> columns = table.columns().stream().map(ColumnDefinition::name).toList();
+        int[] keyIndexes = table.primaryKeyColumns().stream().mapToInt(key -> indexOfIgnoreCase(columns, key)).toArray();
+        String columnList = String.join(",", columns);
+
+        List<String> messages = new ArrayList<>();
+        long differences = 0;
+        for (ExtractionChunk range : planRanges(originConfig, table)) {
+            ExtractionChunk targetRange = new ExtractionChunk(targetTable.name(), range.segment(), range.keyColumn(), range.lowerBound(), range.upperBound());
+            String originSql = range.toSelect(columnList);
+            String targetSql = targetRange.toSelect(columnList);
+
+            Future<RangeDigest> originFuture = originExecutor.submit(() -> digest(originConfig, originSql, keyIndexes));
+            RangeDigest targetDigest = digest(targetConfig, targetSql, keyIndexes);
+            RangeDigest originDigest = get(originFuture);
+
+            if (originDigest.equals(targetDigest)) {
+                continue;
+            }
+
+            // Detalhamento apenas dos baldes divergentes
+            BitSet mismatched = originDigest.mismatchedBuckets(targetDigest);
+            Future<Map<String, String>> originRowsFuture = originExecutor.submit(() -> rowHashes(originConfig, originSql, keyIndexes, columns, mismatched));
+            Map<String, String> targetRows = rowHashes(targetConfig, targetSql, keyIndexes, columns, mismatched);
+            Map<String, String> originRows = get(originRowsFuture);
+
+            for (var entry : originRows.entrySet()) {
+                String targetHash = targetRows.remove(entry.getKey());
+                if (targetHash == null) {
+                    differences = report(messages, differences, "Falha de conteúdo: registro (%s) da tabela '%s' ausente no destino.".formatted(entry.getKey(), table.name()));
+                } else if (!targetHash.equals(entry.getValue())) {
+                    differences = report(messages, differences, "Falha de conteúdo: registro (%s) da tabela '%s' diverge entre origem e destino.".formatted(entry.getKey(), table.name()));
+                }
+            }
+            for (String key : targetRows.keySet()) {
+                differences = report(messages, differences, "Falha de conteúdo: registro (%s) da tabela '%s' não existe na origem.".formatted(key, table.name()));
+            }
+        }
+
+        if (differences > maxReportedKeys) {
+            messages.add("Falha de conteúdo: tabela '%s' possui mais %d registro(s) divergente(s) não listado(s).".formatted(table.name(), differences - maxReportedKeys));
+        }
+        return messages;
+    }
+
+    private long report(List<String> messages, long differences, String message) {
+        if (differences < maxReportedKeys) {
+            messages.add(message);
+        }
+        return differences + 1;
+    }
+
+    private List<ExtractionChunk> planRanges(DbConnectionConfigDTO config, TableDefinition table) throws SQLException {
+        try (Connection connection = connectionService.createConnection(config)) {
+            return table.planKeyRanges(connection, null, chunkRows, MAX_RANGES, "range");
+        }
+    }
+
+    private RangeDigest digest(DbConnectionConfigDTO config, String sql, int[] keyIndexes) throws SQLException {
+        RangeDigest digest = new RangeDigest(buckets);
+        RowHasher hasher = new RowHasher();
+        scan(config, sql, rs -> {
+            String key = hasher.key(rs, keyIndexes);
+            digest.add(Math.floorMod(key.hashCode(), buckets), hasher.hash(rs));
+        });
+        return digest;
+    }
+
+    private Map<String, String> rowHashes(DbConnectionConfigDTO config, String sql, int[] keyIndexes, List<String> columns, BitSet selectedBuckets) throws SQLException {
+        Map<String, String> rows = new LinkedHashMap<>();
+        RowHasher hasher = new RowHasher();
+        scan(config, sql, rs -> {
+            String key = hasher.key(rs, keyIndexes);
+            if (selectedBuckets.get(Math.floorMod(key.hashCode(), buckets))) {
+                long[] hash = hasher.hash(rs);
+                rows.put(describeKey(columns, keyIndexes, key), Long.toHexString(hash[0]) + Long.toHexString(hash[1]));
+            }
+        });
+        return rows;
+    }
+
+    private void scan(DbConnectionConfigDTO config, String sql, RowConsumer consumer) throws SQLException {
+        try (
+                Connection connection = connectionService.createConnection(config);
+                Statement stmt = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)
+        ) {
+            stmt.setFetchSize(fetchSize);
+            try (ResultSet rs = stmt.executeQuery(sql)) {
+                while (rs.next()) {
+                    consumer.accept(rs);
+                }
+            }
+        }
+    }
+
+    private static String describeKey(List<String> columns, int[] keyIndexes, String key) {
+        String[] values = key.split("\u0000", -1);
+        StringJoiner joiner = new StringJoiner(", ");
+        for (int i = 0; i < keyIndexes.length; i++) {
+            joiner.add(columns.get(keyIndexes[i]) + "=" + values[i]);
+        }
+        return joiner.toString();
+    }
+
+    private static int indexOfIgnoreCase(List<String> columns, String name) {
+        for (int i = 0; i < columns.size(); i++) {
+            if (columns.get(i).equalsIgnoreCase(name)) return i;
+        }
+        throw new IllegalStateException("Coluna de chave '" + name + "' não encontrada.");
+    }
+
+    private static <T> T get(Future<T> future) throws SQLException, InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException sqlException) throw sqlException;
+            throw new SQLException(e.getCause());
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowConsumer {
+        void accept(ResultSet rs) throws SQLException;
+    }
+
+    /**
+     * Hash das linhas a partir dos valores normalizados, para que tipos equivalentes nos dois bancos produzam o mesmo
+     * resultado.
+     */
+    private static class RowHasher {
+        private final MessageDigest md5;
+
+        RowHasher() {
+            try {
+                md5 = MessageDigest.getInstance("MD5");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        String key(ResultSet rs, int[] keyIndexes) throws SQLException {
+            StringBuilder key = new StringBuilder();
+            for (int i = 0; i < keyIndexes.length; i++) {
+                if (i > 0) key.append('\u0000');
+                key.append(ValueNormalizer.normalize(rs.getObject(keyIndexes[i] + 1)));
+            }
+            return key.toString();
+        }
+
+        long[] hash(ResultSet rs) throws SQLException {
+            int columns = rs.getMetaData().getColumnCount();
+            for (int i = 1; i <= columns; i++) {
+                Object value = rs.getObject(i);
+                if (value instanceof Blob blob) {
+                    value = blob.getBytes(1, (int) blob.length());
+                }
+                if (value instanceof byte[] bytes) {
+                    md5.update((byte) 1);
+                    md5.update(bytes);
+                } else if (value == null) {
+                    md5.update((byte) 0);
+                } else {
+                    md5.update((byte) 2);
+                    md5.update(ValueNormalizer.normalize(value).getBytes(StandardCharsets.UTF_8));
+                }
+                md5.update((byte) 0x1F);
+            }
+
+            byte[] digest = md5.digest();
+            long high = 0;
+            long low = 0;
+            for (int i = 0; i < 8; i++) {
+                high = (high << 8) | (digest[i] & 0xFF);
+                low = (low << 8) | (digest[i + 8] & 0xFF);
+            }
+            return new long[]{high, low};
+        }
+    }
+
+    /**
+     * Soma dos hashes das linhas por balde. A soma é comutativa, portanto independe da ordem de leitura.
+     */
+    private static class RangeDigest {
+        private final long[] high;
+        private final long[] low;
+        private final long[] rows;
+
+        RangeDigest(int buckets) {
+            high = new long[buckets];
+            low = new long[buckets];
+            rows = new long[buckets];
+        }
+
+        void add(int bucket, long[] hash) {
+            high[bucket] += hash[0];
+            low[bucket] += hash[1];
+            rows[bucket]++;
+        }
+
+        BitSet mismatchedBuckets(RangeDigest other) {
+            BitSet mismatched = new BitSet(high.length);
+            for (int i = 0; i < high.length; i++) {
+                if (high[i] != other.high[i] || low[i] != other.low[i] || rows[i] != other.rows[i]) {
+                    mismatched.set(i);
+                }
+            }
+            return mismatched;
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (!(object instanceof RangeDigest that)) return false;
+            return Arrays.equals(high, that.high) && Arrays.equals(low, that.low) && Arrays.equals(rows, that.rows);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(high);
+        }
+    }
+}
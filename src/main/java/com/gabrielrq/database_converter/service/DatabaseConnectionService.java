@@ -1,35 +1,185 @@
 package com.gabrielrq.database_converter.service;
 
 import com.gabrielrq.database_converter.dto.DbConnectionConfigDTO;
+import com.gabrielrq.database_converter.util.ThreadPoolSizes;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.datasource.DriverManagerDataSource;
 import org.springframework.stereotype.Service;
 
 import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class DatabaseConnectionService {
 
-    public static DataSource createDataSource(DbConnectionConfigDTO config) {
-        DriverManagerDataSource dataSource = new DriverManagerDataSource();
-        dataSource.setUrl(config.jdbcUrl());
-        dataSource.setUsername(config.username());
-        dataSource.setPassword(config.password());
-        dataSource.setDriverClassName(config.driverClassName());
-        return dataSource;
+    @Value("${migration.pool.maxSize:0}")
+    private int maxPoolSize;
+    @Value("${migration.pool.minIdle:2}")
+    private int minIdle;
+    @Value("${migration.pool.connectionTimeout:30000}")
+    private long connectionTimeout;
+    @Value("${migration.pool.idleTimeout:600000}")
+    private long idleTimeout;
+    @Value("${migration.pool.leakDetectionThreshold:0}")
+    private long leakDetectionThreshold;
+    @Value("${migration.extract.threads:0}")
+    private int extractThreads;
+    @Value("${migration.load.threads:0}")
+    private int loadThreads;
+    @Value("${migration.load.segmentThreads:4}")
+    private int segmentThreads;
+    @Value("${migration.validation.threads:0}")
+    private int validationThreads;
+
+    /**
+     * Pool de uma configuração e as migrações que o utilizam. Migrações simultâneas com a mesma origem ou destino
+     * compartilham o pool, que só é fechado quando a última delas o libera.
+     */
+    private record SharedPool(HikariDataSource dataSource, Set<UUID> migrations) {
+    }
+
+    private final Map<DbConnectionConfigDTO, SharedPool> pools = new ConcurrentHashMap<>();
+
+    /**
+     * Dimensiona os pools pela maior demanda simultânea de conexões de uma etapa em uma mesma base: as threads da
+     * extração, as tabelas mais os segmentos da carga, ou as threads da validação. Com {@code migration.pool.maxSize}
+     * em {@code 0} o tamanho é derivado; um valor menor que essa demanda impede a inicialização, pois as threads
+     * excedentes esperariam por conexões até o {@code connectionTimeout}.
+     */
+    @PostConstruct
+    public void resolvePoolSize() {
+        int required = Math.max(
+                ThreadPoolSizes.extract(extractThreads),
+                Math.max(ThreadPoolSizes.load(loadThreads) + Math.max(1, segmentThreads), ThreadPoolSizes.validation(validationThreads))
+        );
+        if (maxPoolSize <= 0) {
+            maxPoolSize = required;
+        } else if (maxPoolSize < required) {
+            throw new IllegalStateException(("migration.pool.maxSize (%d) é menor que a quantidade de conexões simultâneas exigida pelas " +
+                    "threads configuradas (%d). Aumente o pool, reduza as threads ou use 0 para derivar o tamanho.").formatted(maxPoolSize, required));
+        }
+    }
+
+    /**
+     * Pool da configuração, que precisa ter sido registrado por {@link #acquire}: um pool criado fora desse registro
+     * não seria fechado por nenhuma migração.
+     */
+    public DataSource getDataSource(DbConnectionConfigDTO config) {
+        SharedPool shared = config != null ? pools.get(config) : null;
+        if (shared == null) {
+            throw new IllegalStateException("Nenhum pool de conexões registrado para a configuração '%s'.".formatted(config != null ? config.name() : null));
+        }
+        return shared.dataSource();
     }
 
-    public static JdbcTemplate createJdbcTemplate(DbConnectionConfigDTO config) {
-        DataSource dataSource = createDataSource(config);
-        return new JdbcTemplate(dataSource);
+    public JdbcTemplate createJdbcTemplate(DbConnectionConfigDTO config) {
+        return new JdbcTemplate(getDataSource(config));
     }
 
-    public static Connection createConnection(DbConnectionConfigDTO config) throws SQLException {
-        Connection connection = createDataSource(config).getConnection();
+    public Connection createConnection(DbConnectionConfigDTO config) throws SQLException {
+        Connection connection = getDataSource(config).getConnection();
         connection.setAutoCommit(false);
         return connection;
     }
 
+    /**
+     * Conexões do pool da configuração em uso ({@code active = true}) ou ociosas; zero quando não há pool aberto.
+     */
+    public int countConnections(DbConnectionConfigDTO config, boolean active) {
+        SharedPool shared = config != null ? pools.get(config) : null;
+        HikariDataSource pool = shared != null ? shared.dataSource() : null;
+        if (pool == null || pool.isClosed() || pool.getHikariPoolMXBean() == null) {
+            return 0;
+        }
+        return active ? pool.getHikariPoolMXBean().getActiveConnections() : pool.getHikariPoolMXBean().getIdleConnections();
+    }
+
+    /**
+     * Registra o uso dos pools das configurações pela migração, criando-os quando necessário.
+     */
+    public void acquire(UUID migrationId, DbConnectionConfigDTO... configs) {
+        for (var config : configs) {
+            if (config == null) continue;
+
+            pools.compute(config, (key, pool) -> {
+                SharedPool shared = pool != null ? pool : createSharedPool(key);
+                shared.migrations().add(migrationId);
+                return shared;
+            });
+        }
+    }
+
+    /**
+     * Libera os pools usados pela migração, fechando os que não são mais usados por nenhuma outra.
+     */
+    public void release(UUID migrationId, DbConnectionConfigDTO... configs) {
+        for (var config : configs) {
+            if (config == null) continue;
+
+            SharedPool[] released = new SharedPool[1];
+            pools.computeIfPresent(config, (key, pool) -> {
+                pool.migrations().remove(migrationId);
+                if (!pool.migrations().isEmpty()) {
+                    return pool;
+                }
+                released[0] = pool;
+                return null;
+            });
+            // Fechado fora do mapa, para não bloquear as demais configurações enquanto as conexões são encerradas
+            if (released[0] != null) {
+                released[0].dataSource().close();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void closeAll() {
+        pools.values().forEach(pool -> pool.dataSource().close());
+        pools.clear();
+    }
+
+    private SharedPool createSharedPool(DbConnectionConfigDTO config) {
+        return new SharedPool(createPool(config), ConcurrentHashMap.newKeySet());
+    }
+
+    private HikariDataSource createPool(DbConnectionConfigDTO config) {
+        HikariConfig hikariConfig = new HikariConfig();
+        hikariConfig.setPoolName("migration-" + config.name());
+        hikariConfig.setJdbcUrl(config.jdbcUrl());
+        hikariConfig.setUsername(config.username());
+        hikariConfig.setPassword(config.password());
+        hikariConfig.setDriverClassName(config.driverClassName());
+        hikariConfig.setMaximumPoolSize(maxPoolSize);
+        hikariConfig.setMinimumIdle(Math.min(minIdle, maxPoolSize));
+        hikariConfig.setConnectionTimeout(connectionTimeout);
+        hikariConfig.setIdleTimeout(idleTimeout);
+        hikariConfig.setLeakDetectionThreshold(leakDetectionThreshold);
+        // Valida a conexão na criação do pool, mantendo as conexões mínimas já abertas (warm-up)
+        hikariConfig.setInitializationFailTimeout(1);
+        applyDialectProperties(hikariConfig, config.jdbcUrl());
+        return new HikariDataSource(hikariConfig);
+    }
+
+    private void applyDialectProperties(HikariConfig hikariConfig, String jdbcUrl) {
+        if (jdbcUrl == null) return;
+
+        if (jdbcUrl.startsWith("jdbc:postgresql:")) {
+            hikariConfig.addDataSourceProperty("prepareThreshold", "3");
+            hikariConfig.addDataSourceProperty("binaryTransfer", "true");
+            hikariConfig.addDataSourceProperty("reWriteBatchedInserts", "true");
+        } else if (jdbcUrl.startsWith("jdbc:firebird") || jdbcUrl.startsWith("jdbc:firebirdsql:")) {
+            hikariConfig.addDataSourceProperty("blobBufferSize", "65535");
+            hikariConfig.addDataSourceProperty("socketBufferSize", "65535");
+        }
+    }
+
 }
@@ -3,20 +3,30 @@ package com.gabrielrq.database_converter.service;
 
 import com.fasterxml.jackson.core.JsonEncoding;
 import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.gabrielrq.database_converter.domain.SegmentStats;
 import com.gabrielrq.database_converter.exception.JsonException;
+import com.gabrielrq.database_converter.util.TimedOutputStream;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 
 import java.io.*;
+import java.math.BigDecimal;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.sql.*;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.LongConsumer;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
 
 @Service
 public class JsonService {
@@ -26,6 +36,9 @@ public class JsonService {
     @Value("${migration.transform.maps.path}")
     private String conversionMapsPath;
 
+    private static final TypeReference<LinkedHashMap<String, Object>> ROW_TYPE = new TypeReference<>() {
+    };
+
     private final ObjectMapper mapper = new ObjectMapper();
 
     public JsonService() {
@@ -46,81 +59,153 @@ public class JsonService {
         }
     }
 
-    public void writeStream(ResultSet rs, String filename) {
+    public SegmentStats writeStream(ResultSet rs, String filename, LongConsumer rowProgress) {
         Path outputDir = Path.of(basePath);
         Path outputFile = outputDir.resolve(filename + ".json");
 
         try {
+            long fetchStart = System.nanoTime();
             if (!rs.next()) {
-                return;
+                return SegmentStats.EMPTY;
             }
+            long fetchNanos = System.nanoTime() - fetchStart;
 
-            ResultSetMetaData metadata = rs.getMetaData();
-            int columns = metadata.getColumnCount();
-            String[] columnNames = new String[columns];
-
-            for (int i = 1; i <= columns; i++) {
-                columnNames[i - 1] = metadata.getColumnName(i);
-            }
+            ColumnWriter[] plan = compileCodecPlan(rs.getMetaData());
 
             Files.createDirectories(outputFile.getParent());
 
+            long rowCount = 0;
+            CRC32C checksum = new CRC32C();
+            long writeStart = System.nanoTime();
+            TimedOutputStream disk = new TimedOutputStream(new FileOutputStream(outputFile.toFile()));
             try (
-                    FileOutputStream fos = new FileOutputStream(outputFile.toFile());
-                    BufferedOutputStream bos = new BufferedOutputStream(fos);
+                    disk;
+                    CheckedOutputStream cos = new CheckedOutputStream(disk, checksum);
+                    BufferedOutputStream bos = new BufferedOutputStream(cos);
                     JsonGenerator generator = mapper.getFactory().createGenerator(bos, JsonEncoding.UTF8);
             ) {
                 generator.writeStartArray();
 
+                boolean hasNext;
                 do {
                     generator.writeStartObject();
 
-                    for (int i = 1; i <= columns; i++) {
-                        String columnName = columnNames[i - 1];
-                        int columnType = metadata.getColumnType(i);
-                        Object value = rs.getObject(i);
-
-                        switch (columnType) {
-                            case Types.DATE -> {
-                                Date date = rs.getDate(i);
-                                generator.writeStringField(columnName, date != null ? date.toLocalDate().toString() : null);
-                            }
-                            case Types.TIMESTAMP, Types.TIMESTAMP_WITH_TIMEZONE -> {
-                                Timestamp ts = rs.getTimestamp(i);
-                                generator.writeStringField(columnName, ts != null ? ts.toInstant().toString() : null);
-                            }
-                            case Types.CLOB -> {
-                                Clob clob = rs.getClob(i);
-                                String clobValue = clob != null ? clob.getSubString(1L, (int) clob.length()) : null;
-                                generator.writeStringField(columnName, clobValue);
-                            }
-                            case Types.BLOB, Types.BINARY, Types.VARBINARY, Types.LONGVARBINARY -> {
-                                byte[] bytes = rs.getBytes(i);
-                                if (bytes != null) {
-                                    generator.writeBinaryField(columnName, bytes); // escreve como base64
-                                } else {
-                                    generator.writeNullField(columnName);
-                                }
-                            }
-                            default -> {
-                                if (value == null) {
-                                    generator.writeNullField(columnName);
-                                } else {
-                                    generator.writeObjectField(columnName, value);
-                                }
-                            }
-                        }
+                    for (ColumnWriter writer : plan) {
+                        writer.write(rs, generator);
                     }
 
                     generator.writeEndObject();
-                } while (rs.next());
+                    if (++rowCount % TableDataService.PROGRESS_ROWS == 0) {
+                        rowProgress.accept(TableDataService.PROGRESS_ROWS);
+                    }
+
+                    fetchStart = System.nanoTime();
+                    hasNext = rs.next();
+                    fetchNanos += System.nanoTime() - fetchStart;
+                } while (hasNext);
+                rowProgress.accept(rowCount % TableDataService.PROGRESS_ROWS);
 
                 generator.writeEndArray();
                 generator.flush();
             }
+            long encodeNanos = System.nanoTime() - writeStart - fetchNanos - disk.getNanos();
+
+            return new SegmentStats(rowCount, Files.size(outputFile), Long.toHexString(checksum.getValue()),
+                    fetchNanos, Math.max(0, encodeNanos), disk.getNanos());
         } catch (IOException | SQLException e) {
-            throw new JsonException("Erro ao escrever JSON. Detalhes: " + e.getMessage());
+            throw new JsonException("Erro ao escrever JSON. Detalhes: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Resolve, uma única vez por ResultSet, o escritor especializado de cada coluna. Tipos numéricos usam os getters
+     * primitivos com {@code wasNull}, evitando boxing e a leitura duplicada do valor dentro do laço de linhas.
+     */
+    private ColumnWriter[] compileCodecPlan(ResultSetMetaData metadata) throws SQLException {
+        int columns = metadata.getColumnCount();
+        ColumnWriter[] plan = new ColumnWriter[columns];
+
+        for (int i = 1; i <= columns; i++) {
+            final int index = i;
+            final SerializedString name = new SerializedString(metadata.getColumnName(i));
+
+            plan[i - 1] = switch (metadata.getColumnType(i)) {
+                case Types.INTEGER, Types.SMALLINT, Types.TINYINT -> (rs, gen) -> {
+                    int value = rs.getInt(index);
+                    gen.writeFieldName(name);
+                    if (rs.wasNull()) gen.writeNull();
+                    else gen.writeNumber(value);
+                };
+                case Types.BIGINT -> (rs, gen) -> {
+                    long value = rs.getLong(index);
+                    gen.writeFieldName(name);
+                    if (rs.wasNull()) gen.writeNull();
+                    else gen.writeNumber(value);
+                };
+                case Types.DOUBLE, Types.FLOAT -> (rs, gen) -> {
+                    double value = rs.getDouble(index);
+                    gen.writeFieldName(name);
+                    if (rs.wasNull()) gen.writeNull();
+                    else gen.writeNumber(value);
+                };
+                case Types.REAL -> (rs, gen) -> {
+                    float value = rs.getFloat(index);
+                    gen.writeFieldName(name);
+                    if (rs.wasNull()) gen.writeNull();
+                    else gen.writeNumber(value);
+                };
+                case Types.NUMERIC, Types.DECIMAL -> (rs, gen) -> {
+                    BigDecimal value = rs.getBigDecimal(index);
+                    gen.writeFieldName(name);
+                    if (value == null) gen.writeNull();
+                    else gen.writeNumber(value);
+                };
+                case Types.BOOLEAN -> (rs, gen) -> {
+                    boolean value = rs.getBoolean(index);
+                    gen.writeFieldName(name);
+                    if (rs.wasNull()) gen.writeNull();
+                    else gen.writeBoolean(value);
+                };
+                case Types.CHAR, Types.VARCHAR, Types.LONGVARCHAR, Types.NCHAR, Types.NVARCHAR, Types.LONGNVARCHAR -> (rs, gen) -> {
+                    gen.writeFieldName(name);
+                    gen.writeString(rs.getString(index));
+                };
+                case Types.DATE -> (rs, gen) -> {
+                    Date date = rs.getDate(index);
+                    gen.writeFieldName(name);
+                    gen.writeString(date != null ? date.toLocalDate().toString() : null);
+                };
+                case Types.TIMESTAMP, Types.TIMESTAMP_WITH_TIMEZONE -> (rs, gen) -> {
+                    Timestamp ts = rs.getTimestamp(index);
+                    gen.writeFieldName(name);
+                    gen.writeString(ts != null ? ts.toInstant().toString() : null);
+                };
+                case Types.CLOB -> (rs, gen) -> {
+                    Clob clob = rs.getClob(index);
+                    gen.writeFieldName(name);
+                    gen.writeString(clob != null ? clob.getSubString(1L, (int) clob.length()) : null);
+                };
+                case Types.BLOB, Types.BINARY, Types.VARBINARY, Types.LONGVARBINARY -> (rs, gen) -> {
+                    byte[] bytes = rs.getBytes(index);
+                    gen.writeFieldName(name);
+                    if (bytes != null) gen.writeBinary(bytes); // escreve como base64
+                    else gen.writeNull();
+                };
+                default -> (rs, gen) -> {
+                    Object value = rs.getObject(index);
+                    gen.writeFieldName(name);
+                    if (value == null) gen.writeNull();
+                    else gen.writeObject(value);
+                };
+            };
         }
+
+        return plan;
+    }
+
+    @FunctionalInterface
+    private interface ColumnWriter {
+        void write(ResultSet rs, JsonGenerator generator) throws SQLException, IOException;
     }
 
     public List<Map<String, Object>> readTableData(Path tablePath) throws IOException {
@@ -134,6 +219,28 @@ public class JsonService {
         }
     }
 
+    /**
+     * Lê o arquivo da tabela linha a linha a partir do fluxo de tokens, sem materializar o array inteiro em memória.
+     */
+    public long streamTableData(Path tablePath, RowHandler handler) throws IOException {
+        if (!Files.exists(tablePath)) {
+            throw new FileNotFoundException("File '" + tablePath + "' not found");
+        }
+
+        long rowCount = 0;
+        try (JsonParser parser = mapper.getFactory().createParser(new BufferedInputStream(new FileInputStream(tablePath.toFile())))) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new JsonException("Arquivo '" + tablePath + "' não contém um array de linhas.");
+            }
+
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                handler.handle(mapper.readValue(parser, ROW_TYPE));
+                rowCount++;
+            }
+        }
+        return rowCount;
+    }
+
     public Map<Integer, String> readConversionMap(String mapName) throws IOException {
         Path mapPath = Path.of(conversionMapsPath).resolve(mapName + ".json");
 
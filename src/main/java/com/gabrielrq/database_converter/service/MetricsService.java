@@ -0,0 +1,52 @@
+package com.gabrielrq.database_converter.service;
+
+import com.gabrielrq.database_converter.domain.MigrationMetrics;
+import com.gabrielrq.database_converter.domain.MigrationStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Acesso às métricas de cada migração, expostas pelo Actuator em {@code /actuator/metrics} e
+ * {@code /actuator/prometheus}.
+ */
+@Service
+public class MetricsService {
+
+    private final MeterRegistry registry;
+    private final DatabaseConnectionService connectionService;
+    private final Map<UUID, MigrationMetrics> migrations = new ConcurrentHashMap<>();
+
+    public MetricsService(MeterRegistry registry, DatabaseConnectionService connectionService) {
+        this.registry = registry;
+        this.connectionService = connectionService;
+    }
+
+    /**
+     * Métricas da migração; na primeira chamada, registra os medidores de conexões abertas na origem e no destino.
+     */
+    public MigrationMetrics forMigration(MigrationStatus status) {
+        return migrations.computeIfAbsent(status.getId(), id -> {
+            MigrationMetrics metrics = new MigrationMetrics(registry, id.toString());
+            metrics.gauge("migration.connections", status, s -> connectionService.countConnections(s.getMetadata().getOriginConfig(), true), "role", "origin", "state", "active");
+            metrics.gauge("migration.connections", status, s -> connectionService.countConnections(s.getMetadata().getOriginConfig(), false), "role", "origin", "state", "idle");
+            metrics.gauge("migration.connections", status, s -> connectionService.countConnections(s.getMetadata().getTargetConfig(), true), "role", "target", "state", "active");
+            metrics.gauge("migration.connections", status, s -> connectionService.countConnections(s.getMetadata().getTargetConfig(), false), "role", "target", "state", "idle");
+            return metrics;
+        });
+    }
+
+    /**
+     * Descarta as métricas da migração concluída ou com erro; uma nova etapa, como a retomada da extração, volta a
+     * registrá-las.
+     */
+    public void release(MigrationStatus status) {
+        MigrationMetrics metrics = migrations.remove(status.getId());
+        if (metrics != null) {
+            metrics.close();
+        }
+    }
+}
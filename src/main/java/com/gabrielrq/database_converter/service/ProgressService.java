@@ -0,0 +1,72 @@
+package com.gabrielrq.database_converter.service;
+
+import com.gabrielrq.database_converter.domain.MigrationMetrics;
+import com.gabrielrq.database_converter.domain.MigrationStatus;
+import com.gabrielrq.database_converter.enums.EtlStep;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Amostragem periódica do progresso por tabela. As threads da ETL apenas incrementam contadores; a cada
+ * {@code migration.progress.interval} milissegundos o progresso é consolidado, guardado para a consulta de status e
+ * enviado por SSE.
+ */
+@Service
+public class ProgressService {
+
+    @Value("${migration.progress.interval:1000}")
+    private long interval;
+
+    private final SseService sseService;
+    private final MetricsService metricsService;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("migration-progress").daemon().factory());
+
+    public ProgressService(SseService sseService, MetricsService metricsService) {
+        this.sseService = sseService;
+        this.metricsService = metricsService;
+    }
+
+    @FunctionalInterface
+    public interface Tracking extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    /**
+     * Inicia o acompanhamento da etapa atual da migração. Ao fechar, uma última amostra é publicada e a duração da
+     * etapa é registrada nas métricas.
+     */
+    public Tracking track(MigrationStatus status, Map<String, Long> estimates) {
+        EtlStep step = status.getStep();
+        MigrationMetrics metrics = metricsService.forMigration(status);
+        status.getMetadata().getProgress().start(step, estimates, metrics);
+        long start = System.nanoTime();
+        ScheduledFuture<?> task = scheduler.scheduleAtFixedRate(() -> publish(status), interval, interval, TimeUnit.MILLISECONDS);
+        return () -> {
+            task.cancel(false);
+            publish(status);
+            metrics.recordPhase(step, System.nanoTime() - start);
+        };
+    }
+
+    private void publish(MigrationStatus status) {
+        try {
+            sseService.sendProgress(status.getId(), status.getMetadata().getProgress().sample());
+        } catch (RuntimeException ignored) {
+            // Uma falha na amostragem não deve interromper as próximas
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,9 @@
+package com.gabrielrq.database_converter.service;
+
+import java.io.IOException;
+import java.util.Map;
+
+@FunctionalInterface
+public interface RowHandler {
+    void handle(Map<String, Object> row) throws IOException;
+}
@@ -0,0 +1,342 @@
+package com.gabrielrq.database_converter.service;
+
+import com.gabrielrq.database_converter.domain.ColumnDefinition;
+import com.gabrielrq.database_converter.domain.TableDefinition;
+import com.gabrielrq.database_converter.dto.DbConnectionConfigDTO;
+import com.gabrielrq.database_converter.dto.SampleValidationDTO;
+import com.gabrielrq.database_converter.util.ValueNormalizer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.sql.*;
+import java.util.*;
+
+/**
+ * Validação do conteúdo por amostragem, para tabelas grandes demais para a comparação completa por somas de
+ * verificação.
+ * <p>
+ * A amostra é retirada da origem e depende da tabela: tabelas menores que o orçamento são lidas por completo; no
+ * PostgreSQL usa-se amostragem por linha ({@code TABLESAMPLE BERNOULLI}); com chave primária inteira, chaves
+ * aleatórias no intervalo da chave; nos demais casos, amostragem reservatório sobre a leitura da tabela. Todos os
+ * métodos sorteiam linhas de forma independente, premissa do limite de confiança informado; a amostragem por blocos
+ * ({@code TABLESAMPLE SYSTEM}), mais barata, traria linhas agrupadas por bloco e superestimaria a confiança. As mesmas
+ * chaves são buscadas no destino e as linhas são comparadas campo a campo após a normalização dos valores.
+ * O orçamento da amostra varia conforme a classe de tamanho da tabela, e o resultado informa o limite superior da
+ * taxa de divergência para o nível de confiança configurado.
+ */
+@Service
+public class SampleValidationService {
+
+    private static final int MAX_KEY_ROUNDS = 8;
+    private static final int MAX_KEY_OVERSAMPLING = 20;
+
+    @Value("${migration.validation.sample.confidence:0.95}")
+    private double confidence;
+    @Value("${migration.validation.sample.smallRows:1000000}")
+    private long smallRows;
+    @Value("${migration.validation.sample.smallBudget:1000}")
+    private int smallBudget;
+    @Value("${migration.validation.sample.mediumRows:100000000}")
+    private long mediumRows;
+    @Value("${migration.validation.sample.mediumBudget:10000}")
+    private int mediumBudget;
+    @Value("${migration.validation.sample.largeBudget:50000}")
+    private int largeBudget;
+    @Value("${migration.validation.sample.keysPerQuery:200}")
+    private int keysPerQuery;
+    @Value("${migration.validation.content.maxReportedKeys:100}")
+    private int maxReportedKeys;
+    @Value("${migration.extract.fetchSize:0}")
+    private int fetchSize;
+
+    private final DatabaseConnectionService connectionService;
+
+    public SampleValidationService(DatabaseConnectionService connectionService) {
+        this.connectionService = connectionService;
+    }
+
+    public record Outcome(SampleValidationDTO summary, List<String> messages) {
+    }
+
+    private record SampledRow(String key, Object[] keyValues, String[] values) {
+    }
+
+    private record Sample(String method, List<SampledRow> rows, boolean complete) {
+
+        Sample(String method, List<SampledRow> rows) {
+            this(method, rows, false);
+        }
+    }
+
+    /**
+     * Compara uma amostra da tabela; {@code originRowCount} é a contagem já obtida na validação volumétrica e define
+     * a classe de tamanho (quando {@code null}, a tabela é tratada como grande).
+     */
+    public Outcome compare(
+            TableDefinition table,
+            TableDefinition targetTable,
+            DbConnectionConfigDTO originConfig,
+            DbConnectionConfigDTO targetConfig,
+            Long originRowCount
+    ) throws SQLException {
+        if (table.primaryKeyColumns().isEmpty()) {
+            return new Outcome(null, List.of());
+        }
+
+        List<String> columns = table.columns().stream().map(ColumnDefinition::name).toList();
+        List<String> keyColumns = table.primaryKeyColumns();
+        int[] keyIndexes = keyColumns.stream().mapToInt(key -> indexOfIgnoreCase(columns, key)).toArray();
+        int budget = budgetFor(originRowCount);
+
+        Sample sample;
+        try (Connection origin = connectionService.createConnection(originConfig)) {
+            sample = sampleOrigin(origin, table, columns, keyIndexes, originRowCount, budget);
+        }
+
+        Map<String, String[]> targetRows = new HashMap<>();
+        try (Connection target = connectionService.createConnection(targetConfig)) {
+            // Amostra que cobre a tabela inteira: uma leitura do destino em vez de buscas por chave
+            if (sample.complete()) {
+                scan(target, "SELECT " + String.join(",", columns) + " FROM " + targetTable.name(), keyIndexes, row -> targetRows.put(row.key(), row.values()));
+            } else {
+                List<Object[]> keys = sample.rows().stream().map(SampledRow::keyValues).toList();
+                fetchByKeys(target, targetTable.name(), columns, keyColumns, keyIndexes, keys, row -> targetRows.put(row.key(), row.values()));
+            }
+        }
+
+        List<String> messages = new ArrayList<>();
+        long mismatched = 0;
+        for (SampledRow row : sample.rows()) {
+            String[] targetValues = targetRows.get(row.key());
+            String difference = null;
+            if (targetValues == null) {
+                difference = "ausente no destino";
+            } else {
+                StringJoiner differentColumns = new StringJoiner(", ");
+                for (int i = 0; i < columns.size(); i++) {
+                    if (!row.values()[i].equals(targetValues[i])) differentColumns.add(columns.get(i));
+                }
+                if (differentColumns.length() > 0) difference = "diverge na(s) coluna(s) " + differentColumns;
+            }
+
+            if (difference != null) {
+                if (mismatched < maxReportedKeys) {
+                    messages.add("Falha de conteúdo: registro (%s) da tabela '%s' %s.".formatted(describeKey(keyColumns, row.keyValues()), table.name(), difference));
+                }
+                mismatched++;
+            }
+        }
+
+        SampleValidationDTO summary = summarize(sample, mismatched, originRowCount);
+        if (mismatched > 0) {
+            messages.add("Falha de conteúdo: %d de %d registro(s) amostrado(s) da tabela '%s' divergem (taxa de divergência de até %s com %s de confiança)."
+                    .formatted(mismatched, summary.sampledRows(), table.name(), percent(summary.maxMismatchRate()), percent(summary.confidence())));
+        }
+        return new Outcome(summary, messages);
+    }
+
+    private int budgetFor(Long rowCount) {
+        if (rowCount == null) return largeBudget;
+        if (rowCount <= smallRows) return smallBudget;
+        if (rowCount <= mediumRows) return mediumBudget;
+        return largeBudget;
+    }
+
+    private Sample sampleOrigin(Connection connection, TableDefinition table, List<String> columns, int[] keyIndexes, Long rowCount, int budget) throws SQLException {
+        String select = "SELECT " + String.join(",", columns) + " FROM " + table.name();
+
+        if (rowCount != null && rowCount <= budget) {
+            List<SampledRow> rows = new ArrayList<>();
+            scan(connection, select, keyIndexes, rows::add);
+            return new Sample("completa", rows, true);
+        }
+
+        Random random = new Random();
+        String productName = connection.getMetaData().getDatabaseProductName();
+        if (rowCount != null && productName != null && productName.startsWith("PostgreSQL")) {
+            // Sorteia cerca do dobro do orçamento e reduz por reservatório, para que a variação do sorteio não deixe
+            // a amostra abaixo do orçamento
+            double percentage = Math.min(100.0, 200.0 * budget / rowCount);
+            Reservoir reservoir = new Reservoir(budget, random);
+            scan(connection, select + " TABLESAMPLE BERNOULLI (" + String.format(Locale.ROOT, "%.6f", percentage) + ")", keyIndexes, reservoir::add);
+            return new Sample("bernoulli", reservoir.rows);
+        }
+
+        String keyColumn = table.integerKeyColumn();
+        if (keyColumn != null) {
+            return new Sample("chaves aleatórias", sampleRandomKeys(connection, table, columns, keyColumn, keyIndexes, rowCount, budget, random));
+        }
+
+        Reservoir reservoir = new Reservoir(budget, random);
+        scan(connection, select, keyIndexes, reservoir::add);
+        return new Sample("varredura", reservoir.rows);
+    }
+
+    private List<SampledRow> sampleRandomKeys(Connection connection, TableDefinition table, List<String> columns, String keyColumn, int[] keyIndexes, Long rowCount, int budget, Random random) throws SQLException {
+        long minKey;
+        long maxKey;
+        try (
+                Statement stmt = connection.createStatement();
+                ResultSet rs = stmt.executeQuery("SELECT MIN(" + keyColumn + "), MAX(" + keyColumn + ") FROM " + table.name())
+        ) {
+            if (!rs.next() || rs.getObject(1) == null) return List.of();
+            minKey = rs.getLong(1);
+            maxKey = rs.getLong(2);
+        }
+
+        // Chaves esparsas exigem sortear mais chaves que o orçamento, na proporção da densidade do intervalo
+        long span = maxKey - minKey + 1;
+        double density = rowCount != null && span > 0 ? Math.min(1.0, (double) rowCount / span) : 1.0;
+        Set<Long> drawn = new HashSet<>();
+        Map<String, SampledRow> found = new LinkedHashMap<>();
+
+        for (int round = 0; round < MAX_KEY_ROUNDS && found.size() < budget && drawn.size() < span; round++) {
+            int needed = budget - found.size();
+            long draws = Math.min((long) Math.ceil(needed / Math.max(density, 1.0 / MAX_KEY_OVERSAMPLING)), span - drawn.size());
+            List<Object[]> keys = new ArrayList<>();
+            while (keys.size() < draws) {
+                long key = minKey + (long) (random.nextDouble() * span);
+                if (drawn.add(key)) keys.add(new Object[]{key});
+            }
+            fetchByKeys(connection, table.name(), columns, List.of(keyColumn), keyIndexes, keys, row -> {
+                if (found.size() < budget) found.putIfAbsent(row.key(), row);
+            });
+        }
+        return new ArrayList<>(found.values());
+    }
+
+    private void fetchByKeys(Connection connection, String table, List<String> columns, List<String> keyColumns, int[] keyIndexes, List<Object[]> keys, RowConsumer consumer) throws SQLException {
+        String select = "SELECT " + String.join(",", columns) + " FROM " + table + " WHERE ";
+        String keyPredicate = "(" + String.join(" AND ", keyColumns.stream().map(k -> k + " = ?").toList()) + ")";
+
+        for (int from = 0; from < keys.size(); from += keysPerQuery) {
+            List<Object[]> batch = keys.subList(from, Math.min(from + keysPerQuery, keys.size()));
+            String where = keyColumns.size() == 1
+                    ? keyColumns.getFirst() + " IN (" + String.join(",", Collections.nCopies(batch.size(), "?")) + ")"
+                    : String.join(" OR ", Collections.nCopies(batch.size(), keyPredicate));
+
+            try (PreparedStatement stmt = connection.prepareStatement(select + where)) {
+                int index = 1;
+                for (Object[] key : batch) {
+                    for (Object value : key) stmt.setObject(index++, value);
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) consumer.accept(readRow(rs, keyIndexes, columns.size()));
+                }
+            }
+        }
+    }
+
+    private void scan(Connection connection, String sql, int[] keyIndexes, RowConsumer consumer) throws SQLException {
+        try (Statement stmt = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            stmt.setFetchSize(fetchSize);
+            try (ResultSet rs = stmt.executeQuery(sql)) {
+                int columnCount = rs.getMetaData().getColumnCount();
+                while (rs.next()) consumer.accept(readRow(rs, keyIndexes, columnCount));
+            }
+        }
+    }
+
+    private static SampledRow readRow(ResultSet rs, int[] keyIndexes, int columnCount) throws SQLException {
+        String[] values = new String[columnCount];
+        Object[] keyValues = new Object[keyIndexes.length];
+        for (int i = 0; i < columnCount; i++) {
+            Object value = rs.getObject(i + 1);
+            values[i] = ValueNormalizer.normalize(value);
+            for (int k = 0; k < keyIndexes.length; k++) {
+                if (keyIndexes[k] == i) keyValues[k] = value;
+            }
+        }
+
+        StringBuilder key = new StringBuilder();
+        for (int k = 0; k < keyIndexes.length; k++) {
+            if (k > 0) key.append('\u0000');
+            key.append(values[keyIndexes[k]]);
+        }
+        return new SampledRow(key.toString(), keyValues, values);
+    }
+
+    // Amostragem reservatório (algoritmo R): cada linha lida tem a mesma chance de permanecer na amostra
+    private static class Reservoir {
+        private final List<SampledRow> rows = new ArrayList<>();
+        private final int budget;
+        private final Random random;
+        private long seen;
+
+        Reservoir(int budget, Random random) {
+            this.budget = budget;
+            this.random = random;
+        }
+
+        void add(SampledRow row) {
+            seen++;
+            if (rows.size() < budget) {
+                rows.add(row);
+                return;
+            }
+            long slot = (long) (random.nextDouble() * seen);
+            if (slot < budget) rows.set((int) slot, row);
+        }
+    }
+
+    private SampleValidationDTO summarize(Sample sample, long mismatched, Long rowCount) {
+        long sampled = sample.rows().size();
+        if (rowCount != null && sampled >= rowCount) {
+            // Amostra cobre a tabela inteira: a taxa é exata
+            return new SampleValidationDTO(sample.method(), sampled, mismatched, 1.0, sampled == 0 ? 0.0 : (double) mismatched / sampled);
+        }
+        if (sampled == 0) {
+            return new SampleValidationDTO(sample.method(), 0, 0, confidence, 1.0);
+        }
+        return new SampleValidationDTO(sample.method(), sampled, mismatched, confidence, upperBound(mismatched, sampled, confidence));
+    }
+
+    /**
+     * Limite superior unilateral da taxa de divergência: sem divergências, o limite exato da binomial
+     * ({@code 1 - (1 - c)^(1/n)}); com divergências, o limite de Wilson.
+     */
+    static double upperBound(long mismatched, long sampled, double confidence) {
+        if (mismatched == 0) {
+            return 1.0 - Math.pow(1.0 - confidence, 1.0 / sampled);
+        }
+
+        double z = normalQuantile(confidence);
+        double n = sampled;
+        double p = mismatched / n;
+        double z2 = z * z;
+        double upper = (p + z2 / (2 * n) + z * Math.sqrt(p * (1 - p) / n + z2 / (4 * n * n))) / (1 + z2 / n);
+        return Math.min(1.0, upper);
+    }
+
+    // Aproximação racional de Abramowitz e Stegun (26.2.23), com erro absoluto inferior a 4.5e-4
+    private static double normalQuantile(double probability) {
+        double tail = Math.min(probability, 1.0 - probability);
+        double t = Math.sqrt(-2.0 * Math.log(tail));
+        double z = t - (2.515517 + 0.802853 * t + 0.010328 * t * t) / (1.0 + 1.432788 * t + 0.189269 * t * t + 0.001308 * t * t * t);
+        return probability >= 0.5 ? z : -z;
+    }
+
+    private static String percent(double value) {
+        return String.format(Locale.ROOT, "%.4f%%", value * 100);
+    }
+
+    private static String describeKey(List<String> keyColumns, Object[] keyValues) {
+        StringJoiner joiner = new StringJoiner(", ");
+        for (int i = 0; i < keyColumns.size(); i++) {
+            joiner.add(keyColumns.get(i) + "=" + keyValues[i]);
+        }
+        return joiner.toString();
+    }
+
+    private static int indexOfIgnoreCase(List<String> columns, String name) {
+        for (int i = 0; i < columns.size(); i++) {
+            if (columns.get(i).equalsIgnoreCase(name)) return i;
+        }
+        throw new IllegalStateException("Coluna de chave '" + name + "' não encontrada.");
+    }
+
+    @FunctionalInterface
+    private interface RowConsumer {
+        void accept(SampledRow row) throws SQLException;
+    }
+}
@@ -2,38 +2,52 @@ package com.gabrielrq.database_converter.service;
 
 import com.gabrielrq.database_converter.domain.ColumnDefinition;
 import com.gabrielrq.database_converter.domain.DatabaseDefinition;
+import com.gabrielrq.database_converter.domain.MigrationProgress;
 import com.gabrielrq.database_converter.domain.TableDefinition;
+import com.gabrielrq.database_converter.domain.TableProgress;
 import com.gabrielrq.database_converter.dto.SqlDTO;
 import com.gabrielrq.database_converter.dto.SqlPageDTO;
+import com.gabrielrq.database_converter.event.DmlGenerationEvent;
 import com.gabrielrq.database_converter.exception.SqlException;
-import com.gabrielrq.database_converter.util.FirebirdBlobHelper;
+import com.gabrielrq.database_converter.service.etl.RowRejectHandler;
+import com.gabrielrq.database_converter.util.DmlRowFormatter;
+import com.gabrielrq.database_converter.util.SqlStatementReader;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Types;
 import java.util.*;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 @Service
 public class SqlService {
 
+    public static final String KEYS_DIR = "keys";
+    public static final String FOREIGN_KEYS_DIR = "foreign-keys";
+
     @Value("${migration.data.path}")
     private String basePath;
     @Value("${migration.transform.ddl.path}")
     private String ddlPath;
     @Value("${migration.transform.dml.path}")
     private String dmlPath;
+    @Value("${migration.transform.constraints.path:./constraints/}")
+    private String constraintsPath;
+    @Value("${migration.load.batchSize:1000}")
+    private int batchSize;
+    @Value("${migration.load.commitInterval:0}")
+    private long commitInterval;
 
-    private final JsonService jsonService;
+    private final TableDataService tableDataService;
 
-    public SqlService(JsonService jsonService) {
-        this.jsonService = jsonService;
+    public SqlService(TableDataService tableDataService) {
+        this.tableDataService = tableDataService;
     }
 
     public void write(Path path, String content) {
@@ -100,58 +114,100 @@ public class SqlService {
         }
     }
 
-    public void bufferReadAndExec(Path path, Statement statement) throws IOException, SQLException {
+    /**
+     * Executa o script em fluxo, enviando as instruções em lotes de {@code migration.load.batchSize} e confirmando
+     * a transação a cada {@code migration.load.commitInterval} instruções (0 confirma apenas ao final, pelo chamador).
+     * Lotes com erro são tratados pelo {@code rejectHandler}.
+     */
+    public void bufferReadAndExec(Path path, Statement statement, RowRejectHandler rejectHandler) throws IOException, SQLException {
+        bufferReadAndExec(path, statement, rejectHandler, null);
+    }
+
+    /**
+     * Como {@link #bufferReadAndExec(Path, Statement, RowRejectHandler)}, contabilizando as instruções executadas
+     * em {@code progress}.
+     */
+    public void bufferReadAndExec(Path path, Statement statement, RowRejectHandler rejectHandler, TableProgress progress) throws IOException, SQLException {
         Path p = Path.of(basePath).resolve(path);
 
         if (!Files.exists(p)) {
             throw new FileNotFoundException("Arquivo '" + p + "' não encontrado.");
         }
 
-        try (BufferedReader br = Files.newBufferedReader(p)) {
-            StringBuilder sqlBlock = new StringBuilder();
-            String line;
-            while ((line = br.readLine()) != null) {
-                line = line.trim();
-                if (line.isEmpty() || line.startsWith("--")) continue;
-                sqlBlock.append(line).append(" ");
-
-                if (line.endsWith(";")) {
-                    statement.execute(sqlBlock.toString());
-                    sqlBlock.setLength(0);
+        RowRejectHandler.BatchAction<String> executeBatch = batch -> {
+            try {
+                for (String sql : batch) {
+                    statement.addBatch(sql);
                 }
+                statement.executeBatch();
+            } catch (SQLException e) {
+                statement.clearBatch();
+                throw e;
             }
+        };
 
-            if (!sqlBlock.isEmpty()) {
-                statement.execute(sqlBlock.toString());
+        try (BufferedReader br = Files.newBufferedReader(p, StandardCharsets.UTF_8)) {
+            SqlStatementReader statements = new SqlStatementReader(br);
+            List<String> pending = new ArrayList<>(batchSize);
+            long uncommitted = 0;
+            String sql;
+            while ((sql = statements.next()) != null) {
+                pending.add(sql);
+                uncommitted++;
+
+                boolean commit = commitInterval > 0 && uncommitted >= commitInterval;
+                if (pending.size() >= batchSize || commit) {
+                    rejectHandler.execute(pending, executeBatch, s -> s);
+                    if (progress != null) progress.addRows(pending.size());
+                    pending.clear();
+                }
+                if (commit) {
+                    statement.getConnection().commit();
+                    uncommitted = 0;
+                }
             }
+
+            rejectHandler.execute(pending, executeBatch, s -> s);
+            if (progress != null) progress.addRows(pending.size());
         }
     }
 
-    public void generate(DatabaseDefinition metadata, Map<Integer, String> conversionMap, String target) {
-        generateDDL(metadata, conversionMap, target);
-        generateDML(metadata, target);
+    public void generate(DatabaseDefinition metadata, Map<Integer, String> conversionMap, String target, boolean deferConstraints, MigrationProgress progress) {
+        generateDDL(metadata, conversionMap, target, deferConstraints);
+        generateDML(metadata, target, progress);
     }
 
-    public void generateDML(DatabaseDefinition metadata, String target) {
+    public void generateDML(DatabaseDefinition metadata, String target, MigrationProgress progress) {
         Path outDir = Path.of(basePath).resolve(metadata.name()).resolve(dmlPath);
         Path tablesPath = Path.of(basePath).resolve(metadata.name()).resolve("tables");
 
         for (var table : metadata.tables()) {
-            StringBuilder dmlBuilder = new StringBuilder();
-            String columns = String.join(",", table.columns().stream().map(ColumnDefinition::name).toList());
-
-            if (!generateDMLData(table, tablesPath, dmlBuilder, columns, target)) {
-                continue;
+            TableProgress tableProgress = progress.table(table.name());
+            DmlGenerationEvent event = new DmlGenerationEvent();
+            event.begin();
+            long start = System.nanoTime();
+            generateDMLData(table, tablesPath, outDir.resolve(/* table.schema() + "." + */ table.name() + ".sql"), target, tableProgress);
+            tableProgress.getMetrics().recordStage("transform.dml", table.name(), System.nanoTime() - start);
+            if (event.shouldCommit()) {
+                event.migrationId = tableProgress.getMetrics().getMigrationId();
+                event.table = table.name();
+                event.rows = tableProgress.getRows();
+                event.bytes = tableProgress.getBytes();
+                event.commit();
             }
-
-            write(outDir.resolve(/* table.schema() + "." + */ table.name() + ".sql"), dmlBuilder.toString());
         }
     }
 
-    public void generateDDL(DatabaseDefinition metadata, Map<Integer, String> conversionMap, String target) {
+    /**
+     * Gera o DDL de criação das tabelas. Com {@code deferConstraints}, as tabelas são criadas sem restrições e
+     * as chaves primárias, únicas e estrangeiras são escritas em scripts {@code ALTER TABLE} separados, executados
+     * após a carga dos dados.
+     */
+    public void generateDDL(DatabaseDefinition metadata, Map<Integer, String> conversionMap, String target, boolean deferConstraints) {
         // TODO melhorar definição das colunas (quanto aos tipos)
 
         Path outDir = Path.of(basePath).resolve(metadata.name()).resolve(ddlPath);
+        Path constraintsDir = Path.of(basePath).resolve(metadata.name()).resolve(constraintsPath);
 
         for (var table : metadata.tables()) {
             StringBuilder ddlBuilder = new StringBuilder()
@@ -164,68 +220,61 @@ public class SqlService {
                     .append(" (\n");
 
             generateDDLColumn(table, ddlBuilder, conversionMap, target);
-            generateDDLPk(table, ddlBuilder);
-            generateDDLFk(table, ddlBuilder);
-            generateDDLUnique(table, ddlBuilder);
+            if (deferConstraints) {
+                generateDeferredConstraints(table, constraintsDir);
+            } else {
+                generateDDLPk(table, ddlBuilder);
+                generateDDLFk(table, ddlBuilder);
+                generateDDLUnique(table, ddlBuilder);
+            }
 
             ddlBuilder.append("\n);");
             write(outDir.resolve(/* table.schema() + "." + */ table.name() + ".sql"), ddlBuilder.toString());
         }
     }
 
-    private boolean generateDMLData(TableDefinition table, Path tablesPath, StringBuilder dmlBuilder, String columns, String target) {
+    /**
+     * Gera o DML da tabela em fluxo: cada linha lida dos segmentos é formatada e escrita diretamente no arquivo,
+     * mantendo o uso de memória constante independentemente do tamanho da tabela.
+     */
+    private void generateDMLData(TableDefinition table, Path tablesPath, Path outFile, String target, TableProgress progress) {
         try {
-            List<Map<String, Object>> tableData = jsonService.readTableData(tablesPath.resolve(/* table.schema() + "." + */ table.name() + ".json"));
-            if (tableData.isEmpty()) return false;
-
-            for (var data : tableData) {
-                dmlBuilder.append("INSERT INTO ")
-//                        .append(table.schema())
-//                        .append(".")
-                        .append(table.name())
-                        .append(" (")
-                        .append(columns)
-                        .append(") VALUES ")
-                        .append("(")
-                        .append(data.values().stream().map((d) -> formatDMLValue(d, target)).collect(Collectors.joining(",")))
-                        .append(");")
-                        .append(System.lineSeparator());
+            List<Path> segments = tableDataService.resolveTableSegments(tablesPath, /* table.schema() + "." + */ table.name())
+                    .stream()
+                    .filter(Files::exists)
+                    .toList();
+            if (segments.isEmpty()) {
+                // Remove o script de uma execução anterior com o mesmo nome, que seria carregado no lugar da tabela vazia
+                Files.deleteIfExists(outFile);
+                progress.finish();
+                return;
             }
-        } catch (FileNotFoundException e) {
-            return false;
-        } catch (IOException e) {
-            throw new SqlException("Erro ao gerar DML para a tabela '" + table.name() + "'. Detalhes: " + e.getMessage());
-        }
-        return true;
-    }
-
-    private String formatDMLValue(Object value, String target) {
-        if (value == null) {
-            return "NULL";
-        } else if (value instanceof Number || value instanceof Boolean) {
-            return value.toString();
-        } else {
-            String stringValue = value.toString()
-                    .replace("'", "''")
-                    .replaceAll("[\\u0000-\\u001F\\u007F]", ""); // Remove caracteres de controle
-
-            if ("FIREBIRD".equals(target)) {
-                if (stringValue.matches("\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}Z")) {
-                    stringValue = stringValue.replace("T", " ").replace("Z", "");
-                } else if (stringValue.matches("\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}[+-]\\d{2}:\\d{2}")) {
-                    stringValue = stringValue.substring(0, 19).replace("T", " ");
-                }
 
-                if (stringValue.length() > 60_000) {
-                    return FirebirdBlobHelper.toFirebirdBlobLiteral(stringValue);
+            DmlRowFormatter formatter = DmlRowFormatter.compile(table, target);
+            long rowCount = 0;
+
+            Files.createDirectories(outFile.getParent());
+            try (BufferedWriter writer = Files.newBufferedWriter(outFile, StandardCharsets.UTF_8)) {
+                for (Path segment : segments) {
+                    formatter.startSegment();
+                    rowCount += tableDataService.streamTableData(segment, data -> {
+                        formatter.write(data, writer);
+                        progress.addRows(1);
+                    });
+                    progress.addBytes(Files.size(segment));
                 }
             }
+            progress.finish();
 
-            return "'" + stringValue + "'";
+            if (rowCount == 0) {
+                Files.deleteIfExists(outFile);
+            }
+        } catch (IOException e) {
+            throw new SqlException("Erro ao gerar DML para a tabela '" + table.name() + "'. Detalhes: " + e.getMessage());
         }
     }
 
-    private String formatColumnType(ColumnDefinition column, Map<Integer, String> conversionMap, String target) {
+    public String formatColumnType(ColumnDefinition column, Map<Integer, String> conversionMap, String target) {
         String type = column.targetType();
         return switch (column.genericType()) {
             case Types.VARCHAR, Types.NVARCHAR, Types.LONGVARCHAR, Types.LONGNVARCHAR, Types.CHAR -> {
@@ -257,6 +306,34 @@ public class SqlService {
         };
     }
 
+    private void generateDeferredConstraints(TableDefinition table, Path constraintsDir) {
+        String alterTable = "ALTER TABLE " + table.name() + " ADD ";
+
+        // Chaves primárias e únicas precisam existir antes das estrangeiras que as referenciam
+        StringBuilder keys = new StringBuilder();
+        if (!table.primaryKeyColumns().isEmpty()) {
+            keys.append(alterTable).append("PRIMARY KEY (").append(String.join(",", table.primaryKeyColumns())).append(");\n");
+        }
+        for (var unique : table.uniqueConstraints()) {
+            keys.append(alterTable).append("UNIQUE (").append(String.join(",", unique)).append(");\n");
+        }
+
+        StringBuilder foreignKeys = new StringBuilder();
+        for (var fk : table.foreignKeys()) {
+            foreignKeys.append(alterTable)
+                    .append("FOREIGN KEY (").append(String.join(",", fk.localColumns())).append(") REFERENCES ")
+                    .append(fk.referencedTable())
+                    .append(" (").append(String.join(",", fk.referencedColumns())).append(");\n");
+        }
+
+        if (!keys.isEmpty()) {
+            write(constraintsDir.resolve(KEYS_DIR).resolve(table.name() + ".sql"), keys.toString());
+        }
+        if (!foreignKeys.isEmpty()) {
+            write(constraintsDir.resolve(FOREIGN_KEYS_DIR).resolve(table.name() + ".sql"), foreignKeys.toString());
+        }
+    }
+
     private void generateDDLUnique(TableDefinition table, StringBuilder ddlBuilder) {
         List<String> uniqueDefinitions = new ArrayList<>();
         if (!table.uniqueConstraints().isEmpty()) {
@@ -0,0 +1,182 @@
+package com.gabrielrq.database_converter.service;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Canal de eventos SSE de uma migração, entre as threads da ETL e as conexões dos clientes.
+ * <p>
+ * A publicação apenas registra o evento no buffer circular do canal e na fila de cada assinante, sem tocar nos
+ * emissores; o envio é feito por assinante em {@code sender}. Eventos marcados como agrupáveis (status) substituem o
+ * evento anterior de mesmo nome ainda não enviado, e o buffer guarda apenas o último deles. Um assinante cuja fila
+ * atinge o limite é desconectado; ao reconectar com {@code Last-Event-ID}, recebe os eventos do buffer.
+ */
+public class SseChannel {
+
+    public record Event(long id, String name, Object data, boolean coalesce) {
+    }
+
+    private final int bufferSize;
+    private final int subscriberQueueSize;
+    private final Executor sender;
+
+    private final ArrayDeque<Event> buffer = new ArrayDeque<>();
+    private final List<Subscriber> subscribers = new ArrayList<>();
+    private long lastId;
+    private boolean completed;
+
+    public SseChannel(int bufferSize, int subscriberQueueSize, Executor sender) {
+        this.bufferSize = bufferSize;
+        this.subscriberQueueSize = subscriberQueueSize;
+        this.sender = sender;
+    }
+
+    public synchronized void publish(String name, Object data, boolean coalesce) {
+        Event event = new Event(++lastId, name, data, coalesce);
+        if (coalesce) {
+            buffer.removeIf(e -> e.coalesce() && e.name().equals(name));
+        }
+        buffer.addLast(event);
+        while (buffer.size() > bufferSize) {
+            buffer.removeFirst();
+        }
+
+        for (Subscriber subscriber : List.copyOf(subscribers)) {
+            subscriber.offer(event);
+        }
+    }
+
+    /**
+     * Registra o emissor. Com {@code lastEventId}, reenvia os eventos do buffer posteriores a ele; sem, apenas os
+     * eventos agrupáveis (o último status), para que uma nova aba já receba a situação atual.
+     */
+    public synchronized Subscriber subscribe(SseEmitter emitter, Long lastEventId, Object greeting) {
+        Subscriber subscriber = new Subscriber(emitter);
+        subscriber.offer(new Event(0, null, greeting, false));
+        for (Event event : buffer) {
+            if (lastEventId != null ? event.id() > lastEventId : event.coalesce()) {
+                subscriber.offer(event);
+            }
+        }
+
+        if (completed) {
+            subscriber.finish();
+        } else {
+            subscribers.add(subscriber);
+        }
+        return subscriber;
+    }
+
+    /**
+     * Encerra os emissores após o envio dos eventos pendentes. O buffer é mantido para reconexões.
+     */
+    public synchronized void complete() {
+        completed = true;
+        subscribers.forEach(Subscriber::finish);
+        subscribers.clear();
+    }
+
+    private synchronized void remove(Subscriber subscriber) {
+        subscribers.remove(subscriber);
+    }
+
+    public final class Subscriber {
+        private final SseEmitter emitter;
+        private final ArrayDeque<Event> queue = new ArrayDeque<>();
+        private boolean draining;
+        private boolean finishing;
+        private boolean closed;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private void offer(Event event) {
+            boolean dropped;
+            synchronized (this) {
+                if (closed) return;
+
+                if (event.coalesce()) {
+                    queue.removeIf(e -> e.coalesce() && e.name().equals(event.name()));
+                }
+                dropped = queue.size() >= subscriberQueueSize;
+                if (dropped) {
+                    closed = true;
+                    queue.clear();
+                } else {
+                    queue.addLast(event);
+                    if (draining) return;
+                    draining = true;
+                }
+            }
+
+            if (dropped) {
+                // Consumidor lento: desconecta em vez de acumular eventos ou bloquear a publicação
+                remove(this);
+                sender.execute(() -> emitter.completeWithError(new IllegalStateException("Consumidor de SSE lento desconectado.")));
+            } else {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void finish() {
+            synchronized (this) {
+                if (closed) return;
+                finishing = true;
+                if (draining) return;
+                draining = true;
+            }
+            sender.execute(this::drain);
+        }
+
+        public void close() {
+            synchronized (this) {
+                closed = true;
+                queue.clear();
+            }
+            remove(this);
+        }
+
+        private void drain() {
+            while (true) {
+                Event event;
+                boolean complete = false;
+                synchronized (this) {
+                    event = closed ? null : queue.pollFirst();
+                    if (event == null) {
+                        draining = false;
+                        complete = finishing && !closed;
+                        closed = closed || complete;
+                    }
+                }
+
+                if (event == null) {
+                    if (complete) emitter.complete();
+                    return;
+                }
+
+                try {
+                    emitter.send(toSseEvent(event));
+                } catch (Exception e) {
+                    close();
+                    return;
+                }
+            }
+        }
+
+        private static SseEmitter.SseEventBuilder toSseEvent(Event event) {
+            if (event.name() == null) {
+                return SseEmitter.event().data(event.data());
+            }
+            return SseEmitter.event()
+                    .id(String.valueOf(event.id()))
+                    .name(event.name())
+                    .data(event.data(), MediaType.APPLICATION_JSON);
+        }
+    }
+}
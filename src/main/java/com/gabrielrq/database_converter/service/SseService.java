@@ -1,59 +1,103 @@
 package com.gabrielrq.database_converter.service;
 
 import com.gabrielrq.database_converter.domain.MigrationStatus;
-import com.gabrielrq.database_converter.exception.NonExistingSseEmitterException;
-import com.gabrielrq.database_converter.exception.SseException;
+import com.gabrielrq.database_converter.dto.MigrationProgressDTO;
+import com.gabrielrq.database_converter.dto.TableValidationResultDTO;
+import com.gabrielrq.database_converter.enums.EtlStep;
 import com.gabrielrq.database_converter.mapper.MigrationStatusMapper;
-import com.gabrielrq.database_converter.repository.SseEmitterRepository;
-import org.springframework.http.MediaType;
+import com.gabrielrq.database_converter.repository.EtlStatusRepository;
+import com.gabrielrq.database_converter.repository.SseChannelRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.io.IOException;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Publicação de eventos SSE das migrações. Os métodos de envio apenas enfileiram o evento no canal da migração
+ * ({@link SseChannel}) e retornam; a escrita nas conexões ocorre em threads virtuais, uma por assinante ativo, de
+ * forma que um cliente lento não atrasa a ETL. O canal de uma migração concluída é descartado após
+ * {@code migration.sse.retention} milissegundos, prazo para que clientes reconectem e recebam os últimos eventos.
+ */
 @Service
 public class SseService {
 
-    private final SseEmitterRepository sseEmitterRepository;
+    @Value("${migration.sse.bufferSize:1024}")
+    private int bufferSize;
+    @Value("${migration.sse.subscriberQueueSize:1024}")
+    private int subscriberQueueSize;
+    @Value("${migration.sse.retention:300000}")
+    private long retention;
 
-    public SseService(SseEmitterRepository sseEmitterRepository) {
-        this.sseEmitterRepository = sseEmitterRepository;
-    }
+    private final SseChannelRepository sseChannelRepository;
+    private final EtlStatusRepository statusRepository;
+    private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService eviction = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("sse-eviction").daemon().factory());
 
-    public SseEmitter registerEmitter(UUID id) {
-        SseEmitter emitter = new SseEmitter(0L);
+    public SseService(SseChannelRepository sseChannelRepository, EtlStatusRepository statusRepository) {
+        this.sseChannelRepository = sseChannelRepository;
+        this.statusRepository = statusRepository;
+    }
 
-        emitter.onCompletion(() -> sseEmitterRepository.delete(id));
-        emitter.onTimeout(() -> sseEmitterRepository.delete(id));
-        emitter.onError((e) -> sseEmitterRepository.delete(id));
+    /**
+     * Registra um novo assinante; várias conexões podem acompanhar a mesma migração. Com {@code lastEventId}
+     * (cabeçalho {@code Last-Event-ID} das reconexões), os eventos perdidos ainda presentes no buffer são reenviados.
+     */
+    public SseEmitter registerEmitter(UUID id, Long lastEventId) {
+        // Lança NonExistentMigrationException para identificadores desconhecidos, sem criar o canal
+        MigrationStatus status = statusRepository.find(id);
+        SseChannel channel = sseChannelRepository.find(id);
+        if (channel == null && (status.getStep() == EtlStep.FINISHED || status.getStep() == EtlStep.ERROR)) {
+            // Canal já descartado: o assinante recebe apenas o status final, por um canal temporário
+            channel = new SseChannel(bufferSize, subscriberQueueSize, sender);
+            channel.publish("status", MigrationStatusMapper.toMigrationStatusDTO(status), true);
+            channel.complete();
+        } else if (channel == null) {
+            channel = channel(id);
+        }
 
-        sendRegistrationConfirmation(emitter);
+        SseEmitter emitter = new SseEmitter(0L);
+        SseChannel.Subscriber subscriber = channel.subscribe(emitter, lastEventId, "Emissor de SSE registrado");
 
-        sseEmitterRepository.save(id, emitter);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError((e) -> subscriber.close());
         return emitter;
     }
 
-    private void sendRegistrationConfirmation(SseEmitter emitter) {
-        try {
-            emitter.send("Emissor de SSE registrado");
-        } catch (IOException ignored) {
-        }
+    public void sendMigrationStatusUpdate(MigrationStatus status) {
+        // Atualizações intermediárias de status ainda não enviadas são substituídas pela mais recente
+        channel(status.getId()).publish("status", MigrationStatusMapper.toMigrationStatusDTO(status), true);
     }
 
-    public void sendMigrationStatusUpdate(MigrationStatus status) {
+    public void sendValidationResult(UUID id, TableValidationResultDTO result) {
+        channel(id).publish("validation", result, false);
+    }
 
-        try {
-            SseEmitter emitter = sseEmitterRepository.find(status.getId());
-            emitter.send(SseEmitter.event().name("status").data(MigrationStatusMapper.toMigrationStatusDTO(status), MediaType.APPLICATION_JSON).build());
-        } catch (IOException e) {
-            throw new SseException("Erro ao enviar evento SSE. Detalhes: " + e.getMessage());
-        } catch (NonExistingSseEmitterException ignored) {
-        }
+    public void sendProgress(UUID id, MigrationProgressDTO progress) {
+        // Cada evento de progresso traz todas as tabelas, então basta enviar o mais recente
+        channel(id).publish("progress", progress, true);
     }
 
     public void sendSseCompletion(UUID id) {
-        SseEmitter emitter = sseEmitterRepository.find(id);
-        emitter.complete();
+        SseChannel channel = channel(id);
+        channel.complete();
+        eviction.schedule(() -> sseChannelRepository.delete(id, channel), retention, TimeUnit.MILLISECONDS);
+    }
+
+    private SseChannel channel(UUID id) {
+        return sseChannelRepository.findOrCreate(id, () -> new SseChannel(bufferSize, subscriberQueueSize, sender));
+    }
+
+    @PreDestroy
+    public void close() {
+        eviction.shutdownNow();
+        sender.shutdownNow();
     }
 }
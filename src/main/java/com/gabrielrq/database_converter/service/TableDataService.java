@@ -0,0 +1,101 @@
+package com.gabrielrq.database_converter.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gabrielrq.database_converter.domain.SegmentStats;
+import com.gabrielrq.database_converter.domain.TableManifest;
+import com.gabrielrq.database_converter.enums.IntermediateFormat;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
+
+@Service
+public class TableDataService {
+
+    public static final String MANIFEST_SUFFIX = ".manifest";
+    // Intervalo, em linhas, entre os repasses de progresso na escrita dos segmentos
+    public static final int PROGRESS_ROWS = 1024;
+
+    @Value("${migration.data.path}")
+    private String basePath;
+    @Value("${migration.data.format:JSON}")
+    private IntermediateFormat format;
+
+    private final JsonService jsonService;
+    private final BinaryTableService binaryTableService;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    public TableDataService(JsonService jsonService, BinaryTableService binaryTableService) {
+        this.jsonService = jsonService;
+        this.binaryTableService = binaryTableService;
+    }
+
+    /**
+     * Escreve o segmento; {@code rowProgress} recebe a quantidade de linhas escritas a cada {@link #PROGRESS_ROWS}
+     * linhas e, ao final, o restante.
+     */
+    public SegmentStats writeStream(ResultSet rs, String filename, LongConsumer rowProgress) {
+        return switch (format) {
+            case JSON -> jsonService.writeStream(rs, filename, rowProgress);
+            case BINARY -> binaryTableService.writeStream(rs, filename, rowProgress);
+        };
+    }
+
+    public IntermediateFormat getFormat() {
+        return format;
+    }
+
+    public long streamTableData(Path segmentPath, RowHandler handler) throws IOException {
+        return switch (IntermediateFormat.fromFilename(segmentPath.toString())) {
+            case JSON -> jsonService.streamTableData(segmentPath, handler);
+            case BINARY -> binaryTableService.streamTableData(segmentPath, handler);
+        };
+    }
+
+    /**
+     * Remove os segmentos e manifestos de tabela de uma extração anterior com o mesmo nome, antes de planejar uma
+     * nova extração.
+     */
+    public void clearTableData(String databaseName) throws IOException {
+        Path tablesPath = Path.of(basePath).resolve(databaseName).resolve("tables");
+        if (!Files.isDirectory(tablesPath)) return;
+
+        try (Stream<Path> files = Files.list(tablesPath)) {
+            for (Path file : files.filter(Files::isRegularFile).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    public List<Path> resolveTableSegments(String databaseName, String tableName) throws IOException {
+        return resolveTableSegments(Path.of(basePath).resolve(databaseName).resolve("tables"), tableName).stream()
+                .filter(Files::exists)
+                .toList();
+    }
+
+    /**
+     * Segmentos da tabela, no formato registrado no manifesto da extração; sem manifesto, no formato configurado.
+     * Arquivos de outro formato deixados no diretório por execuções anteriores nunca são lidos.
+     */
+    public List<Path> resolveTableSegments(Path tablesPath, String tableName) throws IOException {
+        Path manifestPath = tablesPath.resolve(tableName + MANIFEST_SUFFIX + ".json");
+
+        if (!Files.exists(manifestPath)) {
+            return List.of(tablesPath.resolve(tableName + format.getExtension()));
+        }
+
+        // Segmentos vazios não geram arquivo na extração, por isso são ignorados aqui
+        TableManifest manifest = mapper.readValue(manifestPath.toFile(), TableManifest.class);
+        String extension = (manifest.format() != null ? manifest.format() : format).getExtension();
+        return manifest.segments().stream()
+                .map(segment -> tablesPath.resolve(segment + extension))
+                .filter(Files::exists)
+                .toList();
+    }
+}
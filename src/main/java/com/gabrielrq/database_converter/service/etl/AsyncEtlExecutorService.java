@@ -1,17 +1,23 @@
 package com.gabrielrq.database_converter.service.etl;
 
 import com.gabrielrq.database_converter.domain.DatabaseDefinition;
+import com.gabrielrq.database_converter.domain.ExtractionManifest;
 import com.gabrielrq.database_converter.domain.MigrationStatus;
+import com.gabrielrq.database_converter.domain.MigrationStatusMetadata;
 import com.gabrielrq.database_converter.dto.ConsistencyValidationDataDTO;
 import com.gabrielrq.database_converter.domain.TransformationResult;
 import com.gabrielrq.database_converter.enums.EtlStep;
 import com.gabrielrq.database_converter.repository.EtlStatusRepository;
 import com.gabrielrq.database_converter.service.ConsistencyValidationService;
+import com.gabrielrq.database_converter.service.DatabaseConnectionService;
+import com.gabrielrq.database_converter.service.MetricsService;
+import com.gabrielrq.database_converter.service.ProgressService;
 import com.gabrielrq.database_converter.service.SseService;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.Map;
 
 @Service
 public class AsyncEtlExecutorService {
@@ -21,6 +27,9 @@ public class AsyncEtlExecutorService {
     private final ConsistencyValidationService consistencyValidationService;
     private final EtlStatusRepository statusRepository;
     private final SseService sseService;
+    private final DatabaseConnectionService connectionService;
+    private final ProgressService progressService;
+    private final MetricsService metricsService;
 
     public AsyncEtlExecutorService(
             DataExtractionService extractionService,
@@ -28,7 +37,10 @@ public class AsyncEtlExecutorService {
             DataLoadingService loadingService,
             ConsistencyValidationService consistencyValidationService,
             EtlStatusRepository statusRepository,
-            SseService sseService
+            SseService sseService,
+            DatabaseConnectionService connectionService,
+            ProgressService progressService,
+            MetricsService metricsService
     ) {
         this.extractionService = extractionService;
         this.transformationService = transformationService;
@@ -36,6 +48,9 @@ public class AsyncEtlExecutorService {
         this.consistencyValidationService = consistencyValidationService;
         this.statusRepository = statusRepository;
         this.sseService = sseService;
+        this.connectionService = connectionService;
+        this.progressService = progressService;
+        this.metricsService = metricsService;
     }
 
     @Async
@@ -45,8 +60,21 @@ public class AsyncEtlExecutorService {
         statusRepository.save(status);
 
         try {
+            acquireConnections(status);
             sseService.sendMigrationStatusUpdate(status);
-            DatabaseDefinition metadata = extractionService.extract(status.getMetadata().getOriginConfig());
+            DatabaseDefinition metadata;
+            if (status.getMetadata().isPipeMode()) {
+                // No modo direto os dados são lidos da origem durante a carga
+                metadata = extractionService.extractMetadata(status.getMetadata().getOriginConfig());
+            } else {
+                if (status.getMetadata().getExtractionManifest() == null) {
+                    status.getMetadata().setExtractionManifest(new ExtractionManifest());
+                }
+                Map<String, Long> estimates = extractionService.estimateRowCounts(status.getMetadata().getOriginConfig());
+                try (ProgressService.Tracking ignored = progressService.track(status, estimates)) {
+                    metadata = extractionService.extract(status.getMetadata().getOriginConfig(), status.getMetadata().getExtractionManifest(), status.getMetadata().getProgress());
+                }
+            }
             status.getMetadata().setDatabaseMetadata(metadata);
             status.setStep(EtlStep.EXTRACTION_FINISHED);
             statusRepository.save(status);
@@ -54,7 +82,9 @@ public class AsyncEtlExecutorService {
             status.setStep(EtlStep.ERROR);
             status.setMessage(e.getMessage());
             statusRepository.save(status);
+            metricsService.release(status);
         } finally {
+            releaseConnections(status);
             sseService.sendMigrationStatusUpdate(status);
         }
     }
@@ -65,8 +95,13 @@ public class AsyncEtlExecutorService {
         statusRepository.save(status);
 
         try {
+            acquireConnections(status);
             sseService.sendMigrationStatusUpdate(status);
-            TransformationResult result = transformationService.transform(status.getMetadata().getDatabaseMetadata(), status.getMetadata().getTarget());
+            TransformationResult result;
+            try (ProgressService.Tracking ignored = progressService.track(status, extractedRowCounts(status))) {
+                result = transformationService.transform(status.getMetadata().getDatabaseMetadata(), status.getMetadata().getTarget(),
+                        status.getMetadata().isFastLoad(), status.getMetadata().getProgress());
+            }
             status.getMetadata().setDatabaseMetadata(result.metadata());
             status.getMetadata().setExecutionOrder(result.executionList());
             status.setStep(EtlStep.TRANSFORMATION_FINISHED);
@@ -77,7 +112,9 @@ public class AsyncEtlExecutorService {
             status.setStep(EtlStep.ERROR);
             status.setMessage(e.getMessage());
             statusRepository.save(status);
+            metricsService.release(status);
         } finally {
+            releaseConnections(status);
             sseService.sendMigrationStatusUpdate(status);
         }
     }
@@ -88,18 +125,31 @@ public class AsyncEtlExecutorService {
         statusRepository.save(status);
 
         try {
+            acquireConnections(status);
             sseService.sendMigrationStatusUpdate(status);
-            loadingService.load(
-                    status.getMetadata().getTargetConfig(),
-                    new TransformationResult(status.getMetadata().getDatabaseMetadata(), status.getMetadata().getExecutionOrder())
-            );
+            TransformationResult transformationResult = new TransformationResult(status.getMetadata().getDatabaseMetadata(), status.getMetadata().getExecutionOrder());
+            MigrationStatusMetadata metadata = status.getMetadata();
+            if (metadata.isPipeMode()) {
+                // Sem arquivos extraídos, a previsão de linhas vem das estatísticas do catálogo da origem
+                Map<String, Long> estimates = extractionService.estimateRowCounts(metadata.getOriginConfig());
+                try (ProgressService.Tracking ignored = progressService.track(status, estimates)) {
+                    loadingService.pipe(metadata.getOriginConfig(), metadata.getTargetConfig(), transformationResult, metadata.isFastLoad(), metadata.getCompletedLoadSteps(), metadata.getProgress());
+                }
+            } else {
+                try (ProgressService.Tracking ignored = progressService.track(status, extractedRowCounts(status))) {
+                    loadingService.load(metadata.getTargetConfig(), transformationResult, metadata.getTarget(), metadata.getEditedTables(),
+                            metadata.isFastLoad(), metadata.isTolerantLoad(), metadata.getRejectedRows(), metadata.getCompletedLoadSteps(), metadata.getProgress());
+                }
+            }
             status.setStep(EtlStep.LOAD_FINISHED);
             statusRepository.save(status);
         } catch (Exception e) {
             status.setStep(EtlStep.ERROR);
             status.setMessage(e.getMessage());
             statusRepository.save(status);
+            metricsService.release(status);
         } finally {
+            releaseConnections(status);
             sseService.sendMigrationStatusUpdate(status);
         }
     }
@@ -110,9 +160,16 @@ public class AsyncEtlExecutorService {
         statusRepository.save(status);
 
         try {
+            acquireConnections(status);
             sseService.sendMigrationStatusUpdate(status);
+            // Os metadados da origem já foram lidos na extração; os resultados por tabela são enviados ao terminar
             ConsistencyValidationDataDTO validationData = consistencyValidationService.validate(
-                    status.getMetadata().getOriginConfig(), status.getMetadata().getTargetConfig()
+                    status.getMetadata().getDatabaseMetadata(),
+                    status.getMetadata().getOriginConfig(),
+                    status.getMetadata().getTargetConfig(),
+                    status.getMetadata().getContentValidation(),
+                    metricsService.forMigration(status),
+                    result -> sseService.sendValidationResult(status.getId(), result)
             );
             status.setMessage(String.join(System.lineSeparator(), validationData.messages()));
             status.setStep(EtlStep.FINISHED);
@@ -123,8 +180,34 @@ public class AsyncEtlExecutorService {
             status.setMessage(e.getMessage());
             statusRepository.save(status);
         } finally {
+            releaseResources(status);
             sseService.sendMigrationStatusUpdate(status);
             sseService.sendSseCompletion(status.getId());
         }
     }
+
+    private static Map<String, Long> extractedRowCounts(MigrationStatus status) {
+        ExtractionManifest manifest = status.getMetadata().getExtractionManifest();
+        return manifest != null ? manifest.getRowCounts() : Map.of();
+    }
+
+    private void acquireConnections(MigrationStatus status) {
+        connectionService.acquire(status.getId(), status.getMetadata().getOriginConfig(), status.getMetadata().getTargetConfig());
+    }
+
+    /**
+     * Libera os pools de conexão ao fim de cada etapa: entre as etapas a migração aguarda o usuário (revisão do SQL,
+     * confirmação da carga), às vezes indefinidamente, e a etapa seguinte os registra novamente.
+     */
+    private void releaseConnections(MigrationStatus status) {
+        connectionService.release(status.getId(), status.getMetadata().getOriginConfig(), status.getMetadata().getTargetConfig());
+    }
+
+    /**
+     * Libera os pools de conexão e as métricas da migração, ao término ou em caso de erro.
+     */
+    private void releaseResources(MigrationStatus status) {
+        releaseConnections(status);
+        metricsService.release(status);
+    }
 }
@@ -0,0 +1,247 @@
+package com.gabrielrq.database_converter.service.etl;
+
+import com.gabrielrq.database_converter.domain.ColumnDefinition;
+import com.gabrielrq.database_converter.domain.TableDefinition;
+import com.gabrielrq.database_converter.domain.builder.ColumnDefinitionBuilder;
+import com.gabrielrq.database_converter.domain.builder.ForeignKeyDefinitionBuilder;
+import com.gabrielrq.database_converter.domain.builder.TableDefinitionBuilder;
+
+import java.sql.*;
+import java.util.*;
+
+/**
+ * Lê os metadados de todas as tabelas do schema em poucas consultas, em vez de quatro chamadas de
+ * {@link DatabaseMetaData} por tabela. Colunas são obtidas com padrão de tabela nulo; chaves primárias,
+ * estrangeiras e índices únicos vêm de consultas ao catálogo de cada dialeto.
+ */
+class CatalogMetadataReader {
+
+    private static final String POSTGRES_PK_SQL = """
+            SELECT tc.relname AS table_name, a.attname AS column_name
+            FROM pg_constraint con
+            JOIN pg_class tc ON tc.oid = con.conrelid
+            JOIN pg_namespace n ON n.oid = tc.relnamespace
+            CROSS JOIN LATERAL unnest(con.conkey) WITH ORDINALITY AS k(attnum, ord)
+            JOIN pg_attribute a ON a.attrelid = con.conrelid AND a.attnum = k.attnum
+            WHERE con.contype = 'p' AND n.nspname = COALESCE(?, current_schema())
+            ORDER BY tc.relname, k.ord
+            """;
+
+    private static final String POSTGRES_FK_SQL = """
+            SELECT tc.relname AS table_name, con.conname AS fk_name, rc.relname AS pk_table_name,
+                   la.attname AS fk_column, ra.attname AS pk_column
+            FROM pg_constraint con
+            JOIN pg_class tc ON tc.oid = con.conrelid
+            JOIN pg_namespace n ON n.oid = tc.relnamespace
+            JOIN pg_class rc ON rc.oid = con.confrelid
+            CROSS JOIN LATERAL unnest(con.conkey, con.confkey) WITH ORDINALITY AS k(local_attnum, ref_attnum, ord)
+            JOIN pg_attribute la ON la.attrelid = con.conrelid AND la.attnum = k.local_attnum
+            JOIN pg_attribute ra ON ra.attrelid = con.confrelid AND ra.attnum = k.ref_attnum
+            WHERE con.contype = 'f' AND n.nspname = COALESCE(?, current_schema())
+            ORDER BY tc.relname, con.conname, k.ord
+            """;
+
+    private static final String POSTGRES_UNIQUE_SQL = """
+            SELECT tc.relname AS table_name, ic.relname AS index_name, a.attname AS column_name
+            FROM pg_index i
+            JOIN pg_class tc ON tc.oid = i.indrelid
+            JOIN pg_class ic ON ic.oid = i.indexrelid
+            JOIN pg_namespace n ON n.oid = tc.relnamespace
+            CROSS JOIN LATERAL unnest(i.indkey::int2[]) WITH ORDINALITY AS k(attnum, ord)
+            JOIN pg_attribute a ON a.attrelid = i.indrelid AND a.attnum = k.attnum
+            WHERE i.indisunique AND n.nspname = COALESCE(?, current_schema())
+            ORDER BY tc.relname, ic.relname, k.ord
+            """;
+
+    private static final String FIREBIRD_PK_SQL = """
+            SELECT TRIM(rc.RDB$RELATION_NAME) AS TABLE_NAME, TRIM(s.RDB$FIELD_NAME) AS COLUMN_NAME
+            FROM RDB$RELATION_CONSTRAINTS rc
+            JOIN RDB$INDEX_SEGMENTS s ON s.RDB$INDEX_NAME = rc.RDB$INDEX_NAME
+            WHERE rc.RDB$CONSTRAINT_TYPE = 'PRIMARY KEY'
+            ORDER BY rc.RDB$RELATION_NAME, s.RDB$FIELD_POSITION
+            """;
+
+    private static final String FIREBIRD_FK_SQL = """
+            SELECT TRIM(fk.RDB$RELATION_NAME) AS TABLE_NAME, TRIM(fk.RDB$CONSTRAINT_NAME) AS FK_NAME,
+                   TRIM(pk.RDB$RELATION_NAME) AS PK_TABLE_NAME, TRIM(fs.RDB$FIELD_NAME) AS FK_COLUMN,
+                   TRIM(ps.RDB$FIELD_NAME) AS PK_COLUMN
+            FROM RDB$RELATION_CONSTRAINTS fk
+            JOIN RDB$REF_CONSTRAINTS ref ON ref.RDB$CONSTRAINT_NAME = fk.RDB$CONSTRAINT_NAME
+            JOIN RDB$RELATION_CONSTRAINTS pk ON pk.RDB$CONSTRAINT_NAME = ref.RDB$CONST_NAME_UQ
+            JOIN RDB$INDEX_SEGMENTS fs ON fs.RDB$INDEX_NAME = fk.RDB$INDEX_NAME
+            JOIN RDB$INDEX_SEGMENTS ps ON ps.RDB$INDEX_NAME = pk.RDB$INDEX_NAME AND ps.RDB$FIELD_POSITION = fs.RDB$FIELD_POSITION
+            WHERE fk.RDB$CONSTRAINT_TYPE = 'FOREIGN KEY'
+            ORDER BY fk.RDB$RELATION_NAME, fk.RDB$CONSTRAINT_NAME, fs.RDB$FIELD_POSITION
+            """;
+
+    private static final String FIREBIRD_UNIQUE_SQL = """
+            SELECT TRIM(i.RDB$RELATION_NAME) AS TABLE_NAME, TRIM(i.RDB$INDEX_NAME) AS INDEX_NAME,
+                   TRIM(s.RDB$FIELD_NAME) AS COLUMN_NAME
+            FROM RDB$INDICES i
+            JOIN RDB$INDEX_SEGMENTS s ON s.RDB$INDEX_NAME = i.RDB$INDEX_NAME
+            WHERE i.RDB$UNIQUE_FLAG = 1 AND COALESCE(i.RDB$SYSTEM_FLAG, 0) = 0
+            ORDER BY i.RDB$RELATION_NAME, i.RDB$INDEX_NAME, s.RDB$FIELD_POSITION
+            """;
+
+    // Estatísticas do planejador; reltuples é -1 em tabelas nunca analisadas
+    private static final String POSTGRES_ROW_ESTIMATE_SQL = """
+            SELECT c.relname AS table_name, c.reltuples::bigint AS row_estimate
+            FROM pg_class c
+            JOIN pg_namespace n ON n.oid = c.relnamespace
+            WHERE c.relkind IN ('r', 'p') AND n.nspname = COALESCE(?, current_schema())
+            """;
+
+    // A seletividade do índice da chave primária é 1 / quantidade de chaves distintas, isto é, de linhas
+    private static final String FIREBIRD_ROW_ESTIMATE_SQL = """
+            SELECT TRIM(rc.RDB$RELATION_NAME) AS TABLE_NAME,
+                   CAST(1 / NULLIF(i.RDB$STATISTICS, 0) AS BIGINT) AS ROW_ESTIMATE
+            FROM RDB$RELATION_CONSTRAINTS rc
+            JOIN RDB$INDICES i ON i.RDB$INDEX_NAME = rc.RDB$INDEX_NAME
+            WHERE rc.RDB$CONSTRAINT_TYPE = 'PRIMARY KEY'
+            """;
+
+    private enum Dialect {POSTGRES, FIREBIRD}
+
+    private final Connection connection;
+    private final DatabaseMetaData metadata;
+    private final Dialect dialect;
+
+    CatalogMetadataReader(Connection connection) throws SQLException {
+        this.connection = connection;
+        this.metadata = connection.getMetaData();
+        this.dialect = detectDialect(metadata.getDatabaseProductName());
+    }
+
+    boolean isSupported() {
+        return dialect != null;
+    }
+
+    List<TableDefinition> read(String catalog, String schema) throws SQLException {
+        Map<String, TableDefinitionBuilder> tables = new LinkedHashMap<>();
+        try (ResultSet tableRs = metadata.getTables(catalog, schema, null, new String[]{"TABLE"})) {
+            while (tableRs.next()) {
+                String tableName = tableRs.getString("TABLE_NAME");
+                tables.put(tableName, new TableDefinitionBuilder()
+                        .setName(tableName)
+                        .setSchema(tableRs.getString("TABLE_SCHEM")));
+            }
+        }
+
+        if (tables.isEmpty()) {
+            return List.of();
+        }
+
+        // Columns
+        try (ResultSet colRs = metadata.getColumns(catalog, schema, null, null)) {
+            while (colRs.next()) {
+                TableDefinitionBuilder table = tables.get(colRs.getString("TABLE_NAME"));
+                if (table != null) {
+                    table.addColumn(toColumnDefinition(colRs));
+                }
+            }
+        }
+
+        // Primary Keys
+        Map<String, List<String>> pkColumns = new HashMap<>();
+        try (ResultSet pkRs = query(dialect == Dialect.POSTGRES ? POSTGRES_PK_SQL : FIREBIRD_PK_SQL, schema)) {
+            while (pkRs.next()) {
+                String tableName = pkRs.getString(1);
+                if (tables.containsKey(tableName)) {
+                    pkColumns.computeIfAbsent(tableName, k -> new ArrayList<>()).add(pkRs.getString(2));
+                }
+            }
+        }
+
+        // Foreign Keys
+        Map<String, Map<String, ForeignKeyDefinitionBuilder>> fkMaps = new HashMap<>();
+        try (ResultSet fkRs = query(dialect == Dialect.POSTGRES ? POSTGRES_FK_SQL : FIREBIRD_FK_SQL, schema)) {
+            while (fkRs.next()) {
+                String tableName = fkRs.getString(1);
+                if (!tables.containsKey(tableName)) continue;
+
+                String fkName = fkRs.getString(2);
+                String pkTableName = fkRs.getString(3);
+                fkMaps.computeIfAbsent(tableName, k -> new LinkedHashMap<>())
+                        .computeIfAbsent(fkName, name -> new ForeignKeyDefinitionBuilder(name, pkTableName))
+                        .addColumnPair(fkRs.getString(4), fkRs.getString(5));
+            }
+        }
+
+        // Unique constraints
+        Map<String, Map<String, List<String>>> constraintMaps = new HashMap<>();
+        try (ResultSet uniqueRs = query(dialect == Dialect.POSTGRES ? POSTGRES_UNIQUE_SQL : FIREBIRD_UNIQUE_SQL, schema)) {
+            while (uniqueRs.next()) {
+                String tableName = uniqueRs.getString(1);
+                String columnName = uniqueRs.getString(3);
+                if (!tables.containsKey(tableName) || pkColumns.getOrDefault(tableName, List.of()).contains(columnName))
+                    continue;
+
+                constraintMaps.computeIfAbsent(tableName, k -> new LinkedHashMap<>())
+                        .computeIfAbsent(uniqueRs.getString(2), k -> new ArrayList<>())
+                        .add(columnName);
+            }
+        }
+
+        List<TableDefinition> result = new ArrayList<>(tables.size());
+        for (var entry : tables.entrySet()) {
+            String tableName = entry.getKey();
+            result.add(entry.getValue()
+                    .setPrimaryKeyColumns(pkColumns.getOrDefault(tableName, new ArrayList<>()))
+                    .setForeignKeys(fkMaps.getOrDefault(tableName, Map.of()).values().stream()
+                            .map(ForeignKeyDefinitionBuilder::build)
+                            .toList())
+                    .setUniqueConstraints(constraintMaps.getOrDefault(tableName, Map.of()).values().stream().toList())
+                    .build());
+        }
+        return result;
+    }
+
+    /**
+     * Quantidade aproximada de linhas por tabela, obtida das estatísticas do catálogo sem percorrer as tabelas.
+     * Tabelas sem estatística não constam no resultado.
+     */
+    Map<String, Long> readRowEstimates(String schema) throws SQLException {
+        Map<String, Long> estimates = new HashMap<>();
+        try (ResultSet rs = query(dialect == Dialect.POSTGRES ? POSTGRES_ROW_ESTIMATE_SQL : FIREBIRD_ROW_ESTIMATE_SQL, schema)) {
+            while (rs.next()) {
+                long estimate = rs.getLong(2);
+                if (!rs.wasNull() && estimate >= 0) {
+                    estimates.put(rs.getString(1), estimate);
+                }
+            }
+        }
+        return estimates;
+    }
+
+    static ColumnDefinition toColumnDefinition(ResultSet colRs) throws SQLException {
+        return new ColumnDefinitionBuilder()
+                .setName(colRs.getString("COLUMN_NAME"))
+                .setGenericType(colRs.getInt("DATA_TYPE"))
+                .setOriginType(colRs.getString("TYPE_NAME"))
+                .setTargetType(null)
+                .setDefaultValue(colRs.getString("COLUMN_DEF"))
+                .setLength(colRs.getInt("COLUMN_SIZE"))
+                .setPrecision(colRs.getInt("COLUMN_SIZE"))
+                .setScale(colRs.getInt("DECIMAL_DIGITS"))
+                .setNullable(colRs.getString("IS_NULLABLE").equalsIgnoreCase("YES"))
+                .setAutoIncrement(colRs.getString("IS_AUTOINCREMENT").equalsIgnoreCase("YES"))
+                .setOrdinalPosition(colRs.getInt("ORDINAL_POSITION"))
+                .build();
+    }
+
+    private ResultSet query(String sql, String schema) throws SQLException {
+        PreparedStatement stmt = connection.prepareStatement(sql);
+        if (dialect == Dialect.POSTGRES) {
+            stmt.setString(1, schema);
+        }
+        stmt.closeOnCompletion();
+        return stmt.executeQuery();
+    }
+
+    private static Dialect detectDialect(String productName) {
+        if (productName == null) return null;
+        if (productName.startsWith("PostgreSQL")) return Dialect.POSTGRES;
+        if (productName.startsWith("Firebird")) return Dialect.FIREBIRD;
+        return null;
+    }
+}
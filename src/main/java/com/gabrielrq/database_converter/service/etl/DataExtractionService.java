@@ -1,18 +1,31 @@
 package com.gabrielrq.database_converter.service.etl;
 
 
-import com.gabrielrq.database_converter.domain.builder.ColumnDefinitionBuilder;
 import com.gabrielrq.database_converter.domain.builder.ForeignKeyDefinitionBuilder;
 import com.gabrielrq.database_converter.domain.builder.TableDefinitionBuilder;
 import com.gabrielrq.database_converter.domain.DatabaseDefinition;
+import com.gabrielrq.database_converter.domain.ExtractionCheckpoint;
+import com.gabrielrq.database_converter.domain.ExtractionChunk;
+import com.gabrielrq.database_converter.domain.ExtractionManifest;
+import com.gabrielrq.database_converter.domain.MigrationMetrics;
+import com.gabrielrq.database_converter.domain.MigrationProgress;
+import com.gabrielrq.database_converter.domain.SegmentStats;
 import com.gabrielrq.database_converter.domain.TableDefinition;
+import com.gabrielrq.database_converter.domain.TableManifest;
+import com.gabrielrq.database_converter.domain.TableProgress;
 import com.gabrielrq.database_converter.dto.DbConnectionConfigDTO;
+import com.gabrielrq.database_converter.event.RowBatchEvent;
+import com.gabrielrq.database_converter.event.TableExtractionEvent;
 import com.gabrielrq.database_converter.exception.ExtractionException;
 import com.gabrielrq.database_converter.service.DatabaseConnectionService;
 import com.gabrielrq.database_converter.service.JsonService;
+import com.gabrielrq.database_converter.service.TableDataService;
+import com.gabrielrq.database_converter.util.ThreadPoolSizes;
+import io.micrometer.core.instrument.Gauge;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
 import java.nio.file.Path;
 import java.sql.*;
 import java.util.*;
@@ -27,50 +40,95 @@ public class DataExtractionService {
     private int threadBatchSize;
     @Value("${migration.extract.fetchSize:0}")
     private int fetchSize;
+    @Value("${migration.extract.chunk.rows:0}")
+    private long chunkRows;
+    @Value("${migration.extract.retry.maxAttempts:3}")
+    private int retryMaxAttempts;
+    @Value("${migration.extract.retry.backoff:1000}")
+    private long retryBackoff;
 
     private final JsonService jsonService;
+    private final TableDataService tableDataService;
+    private final DatabaseConnectionService connectionService;
 
-    public DataExtractionService(JsonService jsonService) {
+    public DataExtractionService(JsonService jsonService, TableDataService tableDataService, DatabaseConnectionService connectionService) {
         this.jsonService = jsonService;
+        this.tableDataService = tableDataService;
+        this.connectionService = connectionService;
     }
 
-    private void storeToJSON(DbConnectionConfigDTO config, DatabaseDefinition metadata) {
+    private void storeToJSON(DbConnectionConfigDTO config, ExtractionManifest manifest, MigrationProgress progress) {
+        DatabaseDefinition metadata = manifest.getDatabaseMetadata();
         Path outputPath = Path.of(metadata.name());
-        jsonService.write(metadata, outputPath.resolve("origin.meta").toString());
 
-        int availableProcessors = Runtime.getRuntime().availableProcessors();
-        int poolSize = threadPoolSize > 0 ? threadPoolSize : Math.max(1, availableProcessors * 2);
+        int poolSize = ThreadPoolSizes.extract(threadPoolSize);
         int batchSize = Math.min(threadBatchSize > 0 ? threadBatchSize : Math.max(1, Math.round(poolSize / 2.0f)), poolSize);
 
-        try (ExecutorService executor = Executors.newFixedThreadPool(poolSize)) {
+        MigrationMetrics metrics = progress.getMetrics();
+        List<Gauge> gauges = new ArrayList<>();
+        try (ThreadPoolExecutor executor = (ThreadPoolExecutor) Executors.newFixedThreadPool(poolSize)) {
+            if (!manifest.isPlanned()) {
+                jsonService.write(metadata, outputPath.resolve("origin.meta").toString());
+                planExtraction(config, manifest, outputPath, poolSize, executor);
+            }
+
             Semaphore semaphore = new Semaphore(batchSize);
             List<Future<?>> futures = new ArrayList<>();
-            Map<String, Throwable> failedTables = new ConcurrentHashMap<>();
-
-            for (final TableDefinition table : metadata.tables()) {
+            gauges.add(metrics.gauge("migration.extract.queue", executor, e -> e.getQueue().size()));
+            gauges.add(metrics.gauge("migration.extract.active", executor, ThreadPoolExecutor::getActiveCount));
+            gauges.add(metrics.gauge("migration.extract.permits", semaphore, Semaphore::availablePermits));
+            // Evento JFR por tabela, aberto no primeiro segmento e confirmado quando o último termina
+            Map<String, TableExtractionEvent> tableEvents = new ConcurrentHashMap<>();
+
+            // Na retomada, apenas as entradas incompletas do manifesto são extraídas novamente
+            for (final ExtractionCheckpoint checkpoint : manifest.getIncomplete()) {
+                final ExtractionChunk chunk = checkpoint.chunk();
+                final TableProgress tableProgress = progress.table(chunk.table());
                 semaphore.acquire();
 
                 futures.add(
                         executor.submit(() -> {
-//                            String schema = table.schema();
-//                            String tableName = table.name();
-
-//                            String fullTableName = (schema != null && !schema.isBlank())
-//                                    ? schema + "." + tableName
-//                                    : tableName;
-
-
-                            String sql = "SELECT * FROM " + table.name();
-                            try (
-                                    Connection connection = DatabaseConnectionService.createConnection(config);
-                                    Statement stmt = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
-                            ) {
-                                stmt.setFetchSize(fetchSize);
-                                ResultSet rs = stmt.executeQuery(sql);
-                                jsonService.writeStream(rs, outputPath.resolve("tables/" + table.name()).toString());
-                            } catch (SQLException e) {
-                                failedTables.put(table.name(), e);
+                            try {
+                                withRetry(chunk.segment(), (attempt) -> {
+                                    // Linhas de uma tentativa com falha são descontadas do progresso antes de repetir
+                                    long[] attemptRows = {0};
+                                    long segmentStart = System.nanoTime();
+                                    tableEvents.computeIfAbsent(chunk.table(), table -> {
+                                        TableExtractionEvent event = new TableExtractionEvent();
+                                        event.begin();
+                                        return event;
+                                    });
+                                    RowBatchEvent[] batchEvent = {RowBatchEvent.begin(metrics.getMigrationId(), chunk.table(), chunk.segment())};
+                                    try (
+                                            Connection connection = connectionService.createConnection(config);
+                                            Statement stmt = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                                    ) {
+                                        stmt.setFetchSize(fetchSize);
+                                        long queryStart = System.nanoTime();
+                                        ResultSet rs = stmt.executeQuery(chunk.toSelect());
+                                        long queryNanos = System.nanoTime() - queryStart;
+                                        SegmentStats stats = tableDataService.writeStream(rs, outputPath.resolve("tables/" + chunk.segment()).toString(), rows -> {
+                                            attemptRows[0] += rows;
+                                            tableProgress.addRows(rows);
+                                            batchEvent[0] = batchEvent[0].next(rows);
+                                        });
+                                        tableProgress.addBytes(stats.byteSize());
+                                        recordSegment(metrics, chunk.table(), System.nanoTime() - segmentStart, queryNanos, stats);
+                                        manifest.put(checkpoint.done(stats, attempt));
+                                        if (manifest.isTableComplete(chunk.table())) {
+                                            tableProgress.finish();
+                                            commitTableEvent(tableEvents.remove(chunk.table()), metrics, tableProgress, manifest);
+                                        }
+                                        return null;
+                                    } catch (Exception e) {
+                                        tableProgress.addRows(-attemptRows[0]);
+                                        throw e;
+                                    }
+                                });
+                            } catch (RetryExhaustedException e) {
+                                manifest.put(checkpoint.failed(e.getMessage(), e.attempts));
                             } finally {
+                                saveManifest(manifest, outputPath);
                                 semaphore.release();
                             }
                         })
@@ -88,12 +146,146 @@ public class DataExtractionService {
                 future.get();
             }
 
-            if (!failedTables.isEmpty()) {
-                throw new ExtractionException("Falha na extração dos dados: dados de uma ou mais tabelas não obtidos.");
+            List<ExtractionCheckpoint> incomplete = manifest.getIncomplete();
+            if (!incomplete.isEmpty()) {
+                throw new ExtractionException("Falha na extração dos dados: %d segmento(s) de tabela não obtido(s) (%s). A extração pode ser retomada."
+                        .formatted(incomplete.size(), String.join(", ", incomplete.stream().map(c -> c.chunk().segment()).toList())));
             }
 
         } catch (InterruptedException | ExecutionException e) {
             throw new ExtractionException("Falha na extração dos dados: a execução das threads foi interrompida. Detalhe: " + e.getMessage());
+        } finally {
+            gauges.forEach(metrics::remove);
+        }
+    }
+
+    private static void commitTableEvent(TableExtractionEvent event, MigrationMetrics metrics, TableProgress progress, ExtractionManifest manifest) {
+        if (event == null || !event.shouldCommit()) return;
+        event.migrationId = metrics.getMigrationId();
+        event.table = progress.getTable();
+        event.rows = progress.getRows();
+        event.bytes = progress.getBytes();
+        event.segments = manifest.countSegments(progress.getTable());
+        event.commit();
+    }
+
+    // Separa o tempo do segmento em consulta, leitura do JDBC, codificação e escrita em disco
+    private static void recordSegment(MigrationMetrics metrics, String table, long totalNanos, long queryNanos, SegmentStats stats) {
+        metrics.recordStage("extract", table, totalNanos);
+        metrics.recordStage("extract.query", table, queryNanos);
+        metrics.recordStage("extract.fetch", table, stats.fetchNanos());
+        metrics.recordStage("extract.encode", table, stats.encodeNanos());
+        metrics.recordStage("extract.disk", table, stats.diskNanos());
+    }
+
+    private void planExtraction(DbConnectionConfigDTO config, ExtractionManifest manifest, Path outputPath, int poolSize, ExecutorService executor)
+            throws InterruptedException, ExecutionException {
+        // O diretório da migração é nomeado pelo usuário: segmentos de uma execução anterior não podem ser lidos
+        try {
+            tableDataService.clearTableData(outputPath.toString());
+        } catch (IOException e) {
+            throw new ExtractionException("Falha ao remover dados de uma extração anterior. Detalhe: " + e.getMessage(), e);
+        }
+
+        // As estimativas do catálogo decidem a divisão sem COUNT(*); cada tabela é sondada em paralelo no pool da extração
+        Map<String, Long> estimates = estimateRowCounts(config);
+        List<TableDefinition> tables = manifest.getDatabaseMetadata().tables();
+        List<Future<List<ExtractionChunk>>> plans = new ArrayList<>();
+        for (final TableDefinition table : tables) {
+            plans.add(executor.submit(() -> {
+                try {
+                    return withRetry(table.name(), (attempt) -> planChunks(config, table, estimates.get(table.name()), poolSize));
+                } catch (RetryExhaustedException e) {
+                    // Sem a sondagem da chave, a tabela é extraída em uma única tarefa
+                    return List.of(new ExtractionChunk(table.name(), table.name(), null, null, null));
+                }
+            }));
+        }
+
+        for (int i = 0; i < tables.size(); i++) {
+            TableDefinition table = tables.get(i);
+            List<ExtractionChunk> chunks = plans.get(i).get();
+
+            // Gravado mesmo com um único segmento, para que a leitura nunca dependa dos arquivos presentes no diretório
+            jsonService.write(
+                    new TableManifest(table.name(), chunks.getFirst().keyColumn(), chunks.stream().map(ExtractionChunk::segment).toList(), tableDataService.getFormat()),
+                    outputPath.resolve("tables/" + table.name() + TableDataService.MANIFEST_SUFFIX).toString()
+            );
+
+            chunks.forEach(chunk -> manifest.put(ExtractionCheckpoint.pending(chunk)));
+        }
+        saveManifest(manifest, outputPath);
+    }
+
+    private void saveManifest(ExtractionManifest manifest, Path outputPath) {
+        synchronized (manifest) {
+            jsonService.write(manifest.getEntries(), outputPath.resolve("extraction.manifest").toString());
+        }
+    }
+
+    /**
+     * Executa a ação repetindo falhas transitórias (conexão, deadlock, timeout) com backoff exponencial.
+     * Falhas não transitórias ou o esgotamento das tentativas resultam em {@link RetryExhaustedException}.
+     */
+    private <T> T withRetry(String segment, RetryableAction<T> action) {
+        long backoff = retryBackoff;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return action.run(attempt);
+            } catch (Exception e) {
+                if (attempt >= retryMaxAttempts || !isTransient(e)) {
+                    throw new RetryExhaustedException("'%s' após %d tentativa(s): %s".formatted(segment, attempt, e.getMessage()), attempt);
+                }
+            }
+
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RetryExhaustedException("'%s': extração interrompida".formatted(segment), attempt);
+            }
+            backoff *= 2;
+        }
+    }
+
+    private static boolean isTransient(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLTransientException || cause instanceof SQLRecoverableException) {
+                return true;
+            }
+            if (cause instanceof SQLException sqlException && sqlException.getSQLState() != null) {
+                String state = sqlException.getSQLState();
+                // 08: falhas de conexão; 40: rollback por serialização/deadlock; 57P: servidor encerrando
+                if (state.startsWith("08") || state.startsWith("40") || state.startsWith("57P")) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @FunctionalInterface
+    private interface RetryableAction<T> {
+        T run(int attempt) throws Exception;
+    }
+
+    private static class RetryExhaustedException extends RuntimeException {
+        private final int attempts;
+
+        RetryExhaustedException(String message, int attempts) {
+            super(message);
+            this.attempts = attempts;
+        }
+    }
+
+    /**
+     * Divide a tabela em intervalos de chave primária para extração paralela. Só é aplicado a tabelas com chave
+     * primária simples e inteira, e com volume acima de {@code migration.extract.chunk.rows}; as demais tabelas
+     * são extraídas em uma única tarefa.
+     */
+    private List<ExtractionChunk> planChunks(DbConnectionConfigDTO config, TableDefinition table, Long estimatedRows, int poolSize) throws SQLException {
+        try (Connection connection = connectionService.createConnection(config)) {
+            return table.planKeyRanges(connection, estimatedRows, chunkRows, poolSize * 4, "part");
         }
     }
 
@@ -102,6 +294,20 @@ public class DataExtractionService {
         var catalog = connection.getCatalog();
         var schema = connection.getSchema();
 
+        CatalogMetadataReader catalogReader = new CatalogMetadataReader(connection);
+        List<TableDefinition> tables = catalogReader.isSupported()
+                ? catalogReader.read(catalog, schema)
+                : parseMetadataPerTable(metadata, catalog, schema);
+
+        return new DatabaseDefinition(
+                dbName,
+                schema,
+                tables,
+                Optional.ofNullable(connection.getClientInfo("characterEncoding")).orElse("utf-8")
+        );
+    }
+
+    private List<TableDefinition> parseMetadataPerTable(DatabaseMetaData metadata, String catalog, String schema) throws SQLException {
         List<TableDefinition> tables = new ArrayList<>();
 
         // Tables
@@ -126,21 +332,7 @@ public class DataExtractionService {
                 // Columns
                 try (ResultSet colRs = metadata.getColumns(catalog, schema, tableName, null)) {
                     while (colRs.next()) {
-                        table.addColumn(
-                                new ColumnDefinitionBuilder()
-                                        .setName(colRs.getString("COLUMN_NAME"))
-                                        .setGenericType(colRs.getInt("DATA_TYPE"))
-                                        .setOriginType(colRs.getString("TYPE_NAME"))
-                                        .setTargetType(null)
-                                        .setDefaultValue(colRs.getString("COLUMN_DEF"))
-                                        .setLength(colRs.getInt("COLUMN_SIZE"))
-                                        .setPrecision(colRs.getInt("COLUMN_SIZE"))
-                                        .setScale(colRs.getInt("DECIMAL_DIGITS"))
-                                        .setNullable(colRs.getString("IS_NULLABLE").equalsIgnoreCase("YES"))
-                                        .setAutoIncrement(colRs.getString("IS_AUTOINCREMENT").equalsIgnoreCase("YES"))
-                                        .setOrdinalPosition(colRs.getInt("ORDINAL_POSITION"))
-                                        .build()
-                        );
+                        table.addColumn(CatalogMetadataReader.toColumnDefinition(colRs));
                     }
                 }
 
@@ -185,22 +377,43 @@ public class DataExtractionService {
             }
         }
 
-        return new DatabaseDefinition(
-                dbName,
-                schema,
-                tables,
-                Optional.ofNullable(connection.getClientInfo("characterEncoding")).orElse("utf-8")
-        );
+        return tables;
     }
 
-    public DatabaseDefinition extract(DbConnectionConfigDTO config) {
-        try (Connection connection = DatabaseConnectionService.createConnection(config)) {
-            var metadata = parseMetadata(config.name(), connection);
-            storeToJSON(config, metadata);
+    public DatabaseDefinition extractMetadata(DbConnectionConfigDTO config) {
+        try (Connection connection = connectionService.createConnection(config)) {
+            DatabaseDefinition metadata = parseMetadata(config.name(), connection);
+            jsonService.write(metadata, Path.of(metadata.name()).resolve("origin.meta").toString());
             return metadata;
         } catch (SQLException e) {
-            throw new ExtractionException("Falha na extração de dados. Detalhe: " + e.getMessage());
+            throw new ExtractionException("Falha na extração de metadados. Detalhe: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Quantidade aproximada de linhas por tabela segundo as estatísticas do catálogo, usada nas estimativas de
+     * progresso. Retorna vazio quando o dialeto não é suportado ou a consulta falha.
+     */
+    public Map<String, Long> estimateRowCounts(DbConnectionConfigDTO config) {
+        try (Connection connection = connectionService.createConnection(config)) {
+            CatalogMetadataReader catalogReader = new CatalogMetadataReader(connection);
+            return catalogReader.isSupported() ? catalogReader.readRowEstimates(connection.getSchema()) : Map.of();
+        } catch (SQLException e) {
+            return Map.of();
+        }
+    }
+
+    public DatabaseDefinition extract(DbConnectionConfigDTO config, ExtractionManifest manifest, MigrationProgress progress) {
+        if (!manifest.isPlanned()) {
+            try (Connection connection = connectionService.createConnection(config)) {
+                manifest.setDatabaseMetadata(parseMetadata(config.name(), connection));
+            } catch (SQLException e) {
+                throw new ExtractionException("Falha na extração de dados. Detalhe: " + e.getMessage(), e);
+            }
         }
+
+        storeToJSON(config, manifest, progress);
+        return manifest.getDatabaseMetadata();
     }
 
 }
@@ -1,11 +1,19 @@
 package com.gabrielrq.database_converter.service.etl;
 
+import com.gabrielrq.database_converter.domain.MigrationMetrics;
+import com.gabrielrq.database_converter.domain.MigrationProgress;
 import com.gabrielrq.database_converter.domain.TableDefinition;
+import com.gabrielrq.database_converter.domain.TableProgress;
 import com.gabrielrq.database_converter.dto.DbConnectionConfigDTO;
 import com.gabrielrq.database_converter.domain.TransformationResult;
+import com.gabrielrq.database_converter.event.CommitEvent;
 import com.gabrielrq.database_converter.exception.LoadingException;
 import com.gabrielrq.database_converter.service.DatabaseConnectionService;
 import com.gabrielrq.database_converter.service.SqlService;
+import com.gabrielrq.database_converter.service.TableDataService;
+import com.gabrielrq.database_converter.util.TableDependencyResolver;
+import com.gabrielrq.database_converter.util.ThreadPoolSizes;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
@@ -15,29 +23,109 @@ import java.nio.file.Path;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Statement;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
 
 @Service
 public class DataLoadingService {
 
+    private static final String DDL_STEP = "ddl";
+    private static final String DML_STEP = "dml";
+
+    @Value("${migration.data.path}")
+    private String dataPath;
+    @Value("${migration.load.threads:0}")
+    private int loadThreads;
+    @Value("${migration.load.segmentThreads:4}")
+    private int segmentThreads;
+    @Value("${migration.load.errorBudget:1000}")
+    private long errorBudget;
+
     private final SqlService sqlService;
+    private final DatabaseConnectionService connectionService;
+    private final DataPipeService pipeService;
+    private final TableDataService tableDataService;
+    private final PostgresCopyLoader copyLoader;
+    private final FirebirdBatchLoader firebirdLoader;
 
-    public DataLoadingService(SqlService sqlService) {
+    public DataLoadingService(
+            SqlService sqlService,
+            DatabaseConnectionService connectionService,
+            DataPipeService pipeService,
+            TableDataService tableDataService,
+            PostgresCopyLoader copyLoader,
+            FirebirdBatchLoader firebirdLoader
+    ) {
         this.sqlService = sqlService;
+        this.connectionService = connectionService;
+        this.pipeService = pipeService;
+        this.tableDataService = tableDataService;
+        this.copyLoader = copyLoader;
+        this.firebirdLoader = firebirdLoader;
+    }
+
+    /**
+     * Com {@code fastLoad}, as tabelas foram criadas sem restrições: os dados de todas as tabelas são carregados
+     * sem respeitar a ordem das chaves estrangeiras e as restrições são adicionadas ao final.
+     * Com {@code tolerantLoad}, linhas com erro são isoladas e contabilizadas em {@code rejectedRows} por tabela.
+     * Cada etapa confirmada no destino (DDL, dados de uma tabela ou segmento, restrições) é registrada em
+     * {@code completedSteps}; na retomada de uma carga com falha, as etapas registradas não são executadas novamente.
+     */
+    public void load(DbConnectionConfigDTO config, TransformationResult transformationOutput, String target, Set<String> editedTables,
+                     boolean fastLoad, boolean tolerantLoad, Map<String, Long> rejectedRows, Set<String> completedSteps, MigrationProgress progress) {
+        Path basePath = Path.of(transformationOutput.metadata().name());
+        JdbcTemplate template = connectionService.createJdbcTemplate(config);
+        executeDDL(transformationOutput.executionList(), basePath, template, completedSteps);
+        executeDML(transformationOutput.executionList(), basePath, config, target, editedTables, fastLoad, tolerantLoad, rejectedRows, completedSteps, progress);
+        if (fastLoad) {
+            executeConstraints(transformationOutput.executionList(), basePath, config, completedSteps);
+        }
     }
 
-    public void load(DbConnectionConfigDTO config, TransformationResult transformationOutput) {
+    /**
+     * Carga direta da origem para o destino, com as tabelas em paralelo na mesma ordem de dependências da carga
+     * a partir dos arquivos. Cada tabela é confirmada em uma única transação e registrada em {@code completedSteps}.
+     */
+    public void pipe(DbConnectionConfigDTO originConfig, DbConnectionConfigDTO targetConfig, TransformationResult transformationOutput, boolean fastLoad,
+                     Set<String> completedSteps, MigrationProgress progress) {
         Path basePath = Path.of(transformationOutput.metadata().name());
-        JdbcTemplate template = DatabaseConnectionService.createJdbcTemplate(config);
-        executeDDL(transformationOutput.executionList(), basePath, template);
-        executeDML(transformationOutput.executionList(), basePath, config);
+        List<TableDefinition> executionList = transformationOutput.executionList();
+        JdbcTemplate template = connectionService.createJdbcTemplate(targetConfig);
+        executeDDL(executionList, basePath, template, completedSteps);
+
+        // Sem restrições no destino, nenhuma tabela precisa aguardar outra
+        Map<String, Set<String>> parents = fastLoad ? Map.of() : TableDependencyResolver.resolveParents(executionList);
+
+        // Cada tabela em carga mantém uma thread de leitura na origem
+        ExecutorService readers = Executors.newCachedThreadPool();
+        try {
+            executeInParallel(executionList, parents, table -> {
+                String step = step(DML_STEP, table.name());
+                if (completedSteps.contains(step)) {
+                    progress.table(table.name()).finish();
+                    return;
+                }
+                pipeService.pipe(originConfig, targetConfig, table, readers, progress.table(table.name()));
+                completedSteps.add(step);
+            });
+        } finally {
+            readers.shutdownNow();
+            readers.close();
+        }
+        if (fastLoad) {
+            executeConstraints(executionList, basePath, targetConfig, completedSteps);
+        }
     }
 
-    private void executeDDL(List<TableDefinition> executionList, Path basePath, JdbcTemplate template) {
+    private void executeDDL(List<TableDefinition> executionList, Path basePath, JdbcTemplate template, Set<String> completedSteps) {
         for (var table : executionList) {
+            String step = step(DDL_STEP, table.name());
+            if (completedSteps.contains(step)) continue;
             try {
-                String sql = sqlService.read(basePath.resolve("ddl").resolve(/* table.schema() + "."  + */ table.name() + ".sql"));
+                String sql = sqlService.read(basePath.resolve(DDL_STEP).resolve(/* table.schema() + "."  + */ table.name() + ".sql"));
                 template.execute(sql);
+                completedSteps.add(step);
             } catch (FileNotFoundException ignored) {
             } catch (IOException e) {
                 throw new LoadingException("Erro na carga de dados. Detalhe: " + e.getMessage());
@@ -45,23 +133,261 @@ public class DataLoadingService {
         }
     }
 
-    private void executeDML(List<TableDefinition> executionList, Path basePath, DbConnectionConfigDTO config) {
-        try (
-                Connection connection = DatabaseConnectionService.createConnection(config);
-                Statement stmt = connection.createStatement()
-        ) {
-            for (final var table : executionList) {
+    private void executeDML(List<TableDefinition> executionList, Path basePath, DbConnectionConfigDTO config, String target, Set<String> editedTables,
+                            boolean fastLoad, boolean tolerantLoad, Map<String, Long> rejectedRows, Set<String> completedSteps, MigrationProgress progress) {
+        TableBulkLoader bulkLoader = switch (target) {
+            case "POSTGRES" -> copyLoader;
+            case "FIREBIRD" -> firebirdLoader;
+            case null, default -> null;
+        };
+        if (bulkLoader != null && !supportsBulkLoad(bulkLoader, config)) {
+            bulkLoader = null;
+        }
+
+        // Sem restrições no destino, nenhuma tabela precisa aguardar outra
+        Map<String, Set<String>> parents = fastLoad ? Map.of() : TableDependencyResolver.resolveParents(executionList);
+
+        // Pool separado para os segmentos: as tarefas de tabela aguardam seus segmentos sem ocupar o mesmo pool
+        ExecutorService segmentExecutor = Executors.newFixedThreadPool(Math.max(1, segmentThreads));
+        try {
+            LoadContext context = new LoadContext(basePath, config, bulkLoader, editedTables, fastLoad, tolerantLoad, rejectedRows, completedSteps, progress, segmentExecutor);
+            executeInParallel(executionList, parents, table -> loadTable(table, context));
+        } finally {
+            segmentExecutor.shutdownNow();
+            segmentExecutor.close();
+        }
+    }
+
+    /**
+     * Adiciona as restrições adiadas em duas fases: primeiro chaves primárias e únicas de todas as
+     * tabelas, em paralelo; depois as chaves estrangeiras, que dependem delas, uma tabela por vez. Cada chave
+     * estrangeira também bloqueia a tabela referenciada, e tabelas irmãs alteradas ao mesmo tempo disputariam
+     * esse bloqueio (conflito de "object in use" no Firebird e risco de deadlock no PostgreSQL).
+     */
+    private void executeConstraints(List<TableDefinition> executionList, Path basePath, DbConnectionConfigDTO config, Set<String> completedSteps) {
+        Path constraintsPath = basePath.resolve("constraints");
+        executeInParallel(executionList, Map.of(), table -> executeScript(table, constraintsPath.resolve(SqlService.KEYS_DIR), config, completedSteps));
+        for (var table : executionList) {
+            executeScript(table, constraintsPath.resolve(SqlService.FOREIGN_KEYS_DIR), config, completedSteps);
+        }
+    }
+
+    /**
+     * Executa a tarefa de cada tabela em paralelo, respeitando as dependências informadas: cada tabela é iniciada
+     * assim que todas as suas dependências tiverem sido concluídas.
+     */
+    private void executeInParallel(List<TableDefinition> tables, Map<String, Set<String>> parents, Consumer<TableDefinition> task) {
+        Map<String, Integer> pendingParents = new HashMap<>();
+        Map<String, List<TableDefinition>> children = new HashMap<>();
+        for (var table : tables) {
+            Set<String> tableParents = parents.getOrDefault(table.name(), Set.of());
+            pendingParents.put(table.name(), tableParents.size());
+            for (String parent : tableParents) {
+                children.computeIfAbsent(parent, k -> new ArrayList<>()).add(table);
+            }
+        }
+
+        int poolSize = ThreadPoolSizes.load(loadThreads);
+        ExecutorService executor = Executors.newFixedThreadPool(poolSize);
+        try {
+            CompletionService<TableDefinition> completion = new ExecutorCompletionService<>(executor);
+            int running = 0;
+            for (var table : tables) {
+                if (pendingParents.get(table.name()) == 0) {
+                    completion.submit(() -> task.accept(table), table);
+                    running++;
+                }
+            }
+
+            while (running > 0) {
+                TableDefinition done = completion.take().get();
+                running--;
+
+                for (var child : children.getOrDefault(done.name(), List.of())) {
+                    if (pendingParents.merge(child.name(), -1, Integer::sum) == 0) {
+                        completion.submit(() -> task.accept(child), child);
+                        running++;
+                    }
+                }
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof LoadingException loadingException) {
+                throw loadingException;
+            }
+            throw new LoadingException("Erro na carga de dados. Detalhe: " + e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LoadingException("Carga de dados interrompida.");
+        } finally {
+            // Em caso de falha, as tarefas ainda em execução são interrompidas e suas transações descartadas
+            executor.shutdownNow();
+            executor.close();
+        }
+    }
+
+    private void loadTable(TableDefinition table, LoadContext context) {
+        TableProgress progress = context.progress().table(table.name());
+        String tableStep = step(DML_STEP, table.name());
+        if (context.completedSteps().contains(tableStep)) {
+            progress.finish();
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            // Tabelas com SQL editado manualmente são carregadas a partir do script
+            List<Path> segments = context.bulkLoader() != null && !context.editedTables().contains(table.name())
+                    ? tableDataService.resolveTableSegments(context.basePath().toString(), table.name())
+                    : List.of();
+
+            // Autorreferências exigiriam a ordem entre segmentos, exceto quando as restrições são criadas após a carga
+            if (segments.size() > 1 && (context.fastLoad() || !isSelfReferencing(table))) {
+                loadSegments(table, segments, progress, context);
+                progress.getMetrics().recordStage("load", table.name(), System.nanoTime() - start);
+                progress.finish();
+                return;
+            }
+
+            try (
+                    Connection connection = connectionService.createConnection(context.config());
+                    Statement stmt = connection.createStatement();
+                    RowRejectHandler rejectHandler = createRejectHandler(connection, table, table.name(), context)
+            ) {
+                long rows;
+                if (!segments.isEmpty()) {
+                    rows = context.bulkLoader().load(connection, table, segments, rejectHandler, progress);
+                } else {
+                    Path dmlPath = context.basePath().resolve(DML_STEP).resolve(/* table.schema() + "." + */ table.name() + ".sql");
+                    sqlService.bufferReadAndExec(dmlPath, stmt, rejectHandler, progress);
+                    rows = progress.getRows();
+                }
+                commit(connection, progress, rows);
+                context.completedSteps().add(tableStep);
+            }
+            progress.getMetrics().recordStage("load", table.name(), System.nanoTime() - start);
+            progress.finish();
+        } catch (FileNotFoundException ignored) {
+            progress.finish();
+        } catch (SQLException e) {
+            throw new LoadingException("Erro ao executar DML para tabela '" + table.name() + "'. Detalhe: " + e.getMessage());
+        } catch (IOException e) {
+            throw new LoadingException("Erro ao executar DML. Detalhe: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Carrega os segmentos de uma tabela em paralelo, cada um em sua própria conexão e transação. A falha de um
+     * segmento não desfaz os demais, que permanecem confirmados e registrados; na retomada, apenas os segmentos não
+     * confirmados são carregados.
+     */
+    private void loadSegments(TableDefinition table, List<Path> segments, TableProgress progress, LoadContext context) {
+        Map<Path, Future<?>> futures = new LinkedHashMap<>();
+        for (Path segment : segments) {
+            String segmentName = segment.getFileName().toString().replaceFirst("\\.[^.]+$", "");
+            String segmentStep = step(DML_STEP, segmentName);
+            if (context.completedSteps().contains(segmentStep)) continue;
+
+            futures.put(segment, context.segmentExecutor().submit(() -> {
+                try (
+                        Connection connection = connectionService.createConnection(context.config());
+                        RowRejectHandler rejectHandler = createRejectHandler(connection, table, segmentName, context)
+                ) {
+                    long rows = context.bulkLoader().load(connection, table, List.of(segment), rejectHandler, progress);
+                    commit(connection, progress, rows);
+                    context.completedSteps().add(segmentStep);
+                }
+                return null;
+            }));
+        }
+
+        List<String> failures = new ArrayList<>();
+        try {
+            for (var entry : futures.entrySet()) {
                 try {
-                    Path dmlPath = basePath.resolve("dml").resolve(/* table.schema() + "." + */ table.name() + ".sql");
-                    sqlService.bufferReadAndExec(dmlPath, stmt);
-                    connection.commit();
-                } catch (FileNotFoundException ignored) {
-                } catch (SQLException e) {
-                    throw new LoadingException("Erro ao executar DML para tabela '" + table.name() + "'. Detalhe: " + e.getMessage());
+                    entry.getValue().get();
+                } catch (ExecutionException e) {
+                    failures.add(entry.getKey().getFileName() + ": " + e.getCause().getMessage());
                 }
             }
+        } catch (InterruptedException e) {
+            futures.values().forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new LoadingException("Carga da tabela '" + table.name() + "' interrompida.");
+        }
+
+        if (!failures.isEmpty()) {
+            throw new LoadingException("Erro ao carregar %d de %d segmento(s) da tabela '%s'; os demais foram confirmados e a carga pode ser retomada. Detalhe: %s"
+                    .formatted(failures.size(), segments.size(), table.name(), String.join("; ", failures)));
+        }
+    }
+
+    private static void commit(Connection connection, TableProgress progress, long rows) throws SQLException {
+        CommitEvent event = new CommitEvent();
+        event.begin();
+        connection.commit();
+        if (event.shouldCommit()) {
+            event.migrationId = progress.getMetrics().getMigrationId();
+            event.table = progress.getTable();
+            event.stage = "load";
+            event.rows = rows;
+            event.commit();
+        }
+    }
+
+    private RowRejectHandler createRejectHandler(Connection connection, TableDefinition table, String fileName, LoadContext context) {
+        MigrationMetrics metrics = context.progress().getMetrics();
+        if (!context.tolerantLoad()) {
+            return RowRejectHandler.disabled(connection, table.name()).instrument(metrics, "load");
+        }
+        Path deadLetterFile = Path.of(dataPath).resolve(context.basePath()).resolve("rejected").resolve(fileName + ".jsonl");
+        return RowRejectHandler.tolerant(connection, table.name(), deadLetterFile, errorBudget, context.rejectedRows()).instrument(metrics, "load");
+    }
+
+    private boolean supportsBulkLoad(TableBulkLoader bulkLoader, DbConnectionConfigDTO config) {
+        try (Connection connection = connectionService.createConnection(config)) {
+            return bulkLoader.supports(connection);
+        } catch (SQLException e) {
+            throw new LoadingException("Erro ao conectar ao destino. Detalhe: " + e.getMessage());
+        }
+    }
+
+    // Etapas registradas como "<diretório do script>/<tabela ou segmento>"
+    private static String step(String phase, String name) {
+        return phase + "/" + name;
+    }
+
+    private static boolean isSelfReferencing(TableDefinition table) {
+        return table.foreignKeys().stream().anyMatch(fk -> fk.referencedTable().equals(table.name()));
+    }
+
+    private void executeScript(TableDefinition table, Path scriptDir, DbConnectionConfigDTO config, Set<String> completedSteps) {
+        String step = step(scriptDir.getFileName().toString(), table.name());
+        if (completedSteps.contains(step)) return;
+
+        try (
+                Connection connection = connectionService.createConnection(config);
+                Statement stmt = connection.createStatement()
+        ) {
+            sqlService.bufferReadAndExec(scriptDir.resolve(table.name() + ".sql"), stmt, RowRejectHandler.disabled(connection, table.name()));
+            connection.commit();
+            completedSteps.add(step);
+        } catch (FileNotFoundException ignored) {
         } catch (IOException | SQLException e) {
-            throw new LoadingException("Erro ao executar DML. Detalhe: " + e.getMessage());
+            throw new LoadingException("Erro ao criar restrições da tabela '" + table.name() + "'. Detalhe: " + e.getMessage());
         }
     }
+
+    private record LoadContext(
+            Path basePath,
+            DbConnectionConfigDTO config,
+            TableBulkLoader bulkLoader,
+            Set<String> editedTables,
+            boolean fastLoad,
+            boolean tolerantLoad,
+            Map<String, Long> rejectedRows,
+            Set<String> completedSteps,
+            MigrationProgress progress,
+            ExecutorService segmentExecutor
+    ) {
+    }
 }
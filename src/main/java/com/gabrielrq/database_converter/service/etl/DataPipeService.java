@@ -0,0 +1,176 @@
+package com.gabrielrq.database_converter.service.etl;
+
+import com.gabrielrq.database_converter.domain.ColumnDefinition;
+import com.gabrielrq.database_converter.domain.MigrationMetrics;
+import com.gabrielrq.database_converter.domain.TableDefinition;
+import com.gabrielrq.database_converter.domain.TableProgress;
+import com.gabrielrq.database_converter.dto.DbConnectionConfigDTO;
+import com.gabrielrq.database_converter.event.CommitEvent;
+import com.gabrielrq.database_converter.exception.LoadingException;
+import com.gabrielrq.database_converter.service.DatabaseConnectionService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.sql.*;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Modo de carga direta: as linhas são lidas do {@link ResultSet} de origem e inseridas em lotes no destino,
+ * sem passar pelos arquivos intermediários. Leitura e escrita rodam em threads distintas, ligadas por uma
+ * fila limitada que aplica contrapressão sobre a leitura quando o destino é mais lento.
+ */
+@Service
+public class DataPipeService {
+
+    private static final Object[] END_OF_TABLE = new Object[0];
+
+    @Value("${migration.extract.fetchSize:0}")
+    private int fetchSize;
+    @Value("${migration.pipe.queueSize:10000}")
+    private int queueSize;
+    @Value("${migration.pipe.batchSize:1000}")
+    private int batchSize;
+
+    private final DatabaseConnectionService connectionService;
+
+    public DataPipeService(DatabaseConnectionService connectionService) {
+        this.connectionService = connectionService;
+    }
+
+    /**
+     * Copia uma tabela da origem para o destino. A leitura roda em {@code readers}, que deve ter uma thread
+     * disponível para cada tabela copiada ao mesmo tempo.
+     */
+    public void pipe(DbConnectionConfigDTO originConfig, DbConnectionConfigDTO targetConfig, TableDefinition table, ExecutorService readers, TableProgress progress) {
+        List<ColumnDefinition> columns = table.columns();
+        if (columns.isEmpty()) {
+            progress.finish();
+            return;
+        }
+
+        String columnList = String.join(",", columns.stream().map(ColumnDefinition::name).toList());
+        String select = "SELECT " + columnList + " FROM " + table.name();
+        String insert = "INSERT INTO " + table.name() + " (" + columnList + ") VALUES (" + String.join(",", Collections.nCopies(columns.size(), "?")) + ")";
+
+        BlockingQueue<Object[]> queue = new ArrayBlockingQueue<>(queueSize);
+        AtomicBoolean cancelled = new AtomicBoolean(false);
+        // Fila cheia indica escrita no destino como gargalo; vazia, leitura na origem
+        MigrationMetrics metrics = progress.getMetrics();
+        Gauge queueGauge = metrics.gauge("migration.pipe.queue", queue, BlockingQueue::size, "table", table.name());
+        Timer batchTimer = metrics.batchTimer("pipe");
+        long start = System.nanoTime();
+        Future<?> reader = readers.submit(() -> {
+            read(originConfig, select, columns.size(), queue, cancelled);
+            return null;
+        });
+
+        try (
+                Connection connection = connectionService.createConnection(targetConfig);
+                PreparedStatement stmt = connection.prepareStatement(insert)
+        ) {
+            int pending = 0;
+            Object[] row;
+            while ((row = take(queue, reader)) != END_OF_TABLE) {
+                for (int i = 0; i < row.length; i++) {
+                    if (row[i] == null) {
+                        stmt.setNull(i + 1, columns.get(i).genericType());
+                    } else {
+                        stmt.setObject(i + 1, row[i]);
+                    }
+                }
+                stmt.addBatch();
+
+                if (++pending >= batchSize) {
+                    executeBatch(stmt, batchTimer);
+                    progress.addRows(pending);
+                    pending = 0;
+                }
+            }
+
+            if (pending > 0) {
+                executeBatch(stmt, batchTimer);
+                progress.addRows(pending);
+            }
+            CommitEvent commitEvent = new CommitEvent();
+            commitEvent.begin();
+            connection.commit();
+            if (commitEvent.shouldCommit()) {
+                commitEvent.migrationId = metrics.getMigrationId();
+                commitEvent.table = table.name();
+                commitEvent.stage = "pipe";
+                commitEvent.rows = progress.getRows();
+                commitEvent.commit();
+            }
+            reader.get();
+            metrics.recordStage("pipe", table.name(), System.nanoTime() - start);
+            progress.finish();
+        } catch (SQLException e) {
+            throw new LoadingException("Erro ao carregar dados da tabela '" + table.name() + "'. Detalhe: " + e.getMessage());
+        } catch (ExecutionException e) {
+            throw new LoadingException("Erro ao ler dados da tabela '" + table.name() + "' na origem. Detalhe: " + e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LoadingException("Carga da tabela '" + table.name() + "' interrompida.");
+        } finally {
+            // Libera a leitura caso a escrita tenha falhado com a fila cheia
+            cancelled.set(true);
+            queue.clear();
+            metrics.remove(queueGauge);
+        }
+    }
+
+    private static void executeBatch(PreparedStatement stmt, Timer batchTimer) throws SQLException {
+        long start = System.nanoTime();
+        stmt.executeBatch();
+        batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private void read(DbConnectionConfigDTO originConfig, String select, int columnCount, BlockingQueue<Object[]> queue, AtomicBoolean cancelled) throws SQLException, InterruptedException {
+        try (
+                Connection connection = connectionService.createConnection(originConfig);
+                Statement stmt = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)
+        ) {
+            stmt.setFetchSize(fetchSize);
+            try (ResultSet rs = stmt.executeQuery(select)) {
+                while (rs.next()) {
+                    Object[] row = new Object[columnCount];
+                    for (int i = 0; i < columnCount; i++) {
+                        row[i] = rs.getObject(i + 1);
+                    }
+                    if (!offer(queue, row, cancelled)) return;
+                }
+            }
+        }
+        // Em caso de falha o marcador não é enviado: a escrita percebe o término da leitura e propaga o erro
+        offer(queue, END_OF_TABLE, cancelled);
+    }
+
+    private static boolean offer(BlockingQueue<Object[]> queue, Object[] row, AtomicBoolean cancelled) throws InterruptedException {
+        while (!cancelled.get()) {
+            if (queue.offer(row, 100, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Object[] take(BlockingQueue<Object[]> queue, Future<?> reader) throws InterruptedException, ExecutionException {
+        while (true) {
+            Object[] row = queue.poll(100, TimeUnit.MILLISECONDS);
+            if (row != null) {
+                return row;
+            }
+            if (reader.isDone()) {
+                // Propaga a falha da leitura; se terminou normalmente, o marcador de fim já está na fila
+                reader.get();
+                row = queue.poll();
+                return row != null ? row : END_OF_TABLE;
+            }
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.gabrielrq.database_converter.service.etl;
 
 import com.gabrielrq.database_converter.domain.DatabaseDefinition;
+import com.gabrielrq.database_converter.domain.MigrationProgress;
 import com.gabrielrq.database_converter.domain.TableDefinition;
 import com.gabrielrq.database_converter.domain.builder.ColumnDefinitionBuilder;
 import com.gabrielrq.database_converter.domain.builder.DatabaseDefinitionBuilder;
@@ -46,13 +47,13 @@ public class DataTransformationService {
         return databaseBuilder.build();
     }
 
-    public TransformationResult transform(DatabaseDefinition metadata, String target) {
+    public TransformationResult transform(DatabaseDefinition metadata, String target, boolean fastLoad, MigrationProgress progress) {
         try {
             Map<Integer, String> targetConversioMap = jsonService.readConversionMap(target);
             var targetMetadata = mapTargetTypes(metadata, targetConversioMap);
             Path outputPath = Path.of(metadata.name());
             jsonService.write(targetMetadata, outputPath.resolve("target.meta").toString());
-            sqlService.generate(targetMetadata, targetConversioMap, target);
+            sqlService.generate(targetMetadata, targetConversioMap, target, fastLoad, progress);
 
             List<TableDefinition> orderedTables = TableDependencyResolver.sortTablesByDependency(targetMetadata.tables());
             jsonService.write(orderedTables.stream().map(TableDefinition::name).toList(), outputPath.resolve("target.load_order").toString());
@@ -1,16 +1,20 @@
 package com.gabrielrq.database_converter.service.etl;
 
 
+import com.gabrielrq.database_converter.domain.ExtractionManifest;
 import com.gabrielrq.database_converter.domain.MigrationStatus;
 import com.gabrielrq.database_converter.domain.MigrationStatusMetadata;
 import com.gabrielrq.database_converter.domain.builder.MigrationStatusMetadataBuilder;
+import com.gabrielrq.database_converter.dto.SqlDTO;
 import com.gabrielrq.database_converter.dto.StartMigrationRequestDTO;
 import com.gabrielrq.database_converter.enums.EtlStep;
 import com.gabrielrq.database_converter.exception.InvalidMigrationStateException;
 import com.gabrielrq.database_converter.repository.EtlStatusRepository;
+import com.gabrielrq.database_converter.service.SqlService;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @Service
@@ -18,10 +22,12 @@ public class EtlService {
 
     private final AsyncEtlExecutorService asyncEtlExecutorService;
     private final EtlStatusRepository statusRepository;
+    private final SqlService sqlService;
 
-    public EtlService(AsyncEtlExecutorService asyncEtlExecutor, EtlStatusRepository statusRepository) {
+    public EtlService(AsyncEtlExecutorService asyncEtlExecutor, EtlStatusRepository statusRepository, SqlService sqlService) {
         this.asyncEtlExecutorService = asyncEtlExecutor;
         this.statusRepository = statusRepository;
+        this.sqlService = sqlService;
     }
 
     public MigrationStatus createNew(StartMigrationRequestDTO startMigrationRequestDTO) {
@@ -30,6 +36,10 @@ public class EtlService {
                 .setTarget(startMigrationRequestDTO.target())
                 .setOriginConfig(startMigrationRequestDTO.originConfig())
                 .setTargetConfig(startMigrationRequestDTO.targetConfig())
+                .setPipeMode(startMigrationRequestDTO.pipeMode())
+                .setFastLoad(startMigrationRequestDTO.fastLoad())
+                .setTolerantLoad(startMigrationRequestDTO.tolerantLoad())
+                .setContentValidation(startMigrationRequestDTO.contentValidation())
                 .build();
 
         status.setName(startMigrationRequestDTO.name());
@@ -50,6 +60,18 @@ public class EtlService {
         asyncEtlExecutorService.startExtraction(status);
     }
 
+    public void resumeExtraction(UUID id) {
+        MigrationStatus status = statusRepository.find(id);
+        ExtractionManifest manifest = status.getMetadata().getExtractionManifest();
+
+        if (status.getStep() != EtlStep.ERROR || manifest == null || !manifest.isPlanned() || manifest.isComplete()) {
+            throw new InvalidMigrationStateException("Migração com ID '" + status.getId() + "' não possui extração incompleta para ser retomada.");
+        }
+
+        status.setMessage(null);
+        asyncEtlExecutorService.startExtraction(status);
+    }
+
     public void startTransformation(UUID id) {
         MigrationStatus status = statusRepository.find(id);
 
@@ -70,6 +92,17 @@ public class EtlService {
         asyncEtlExecutorService.startLoading(status);
     }
 
+    public void resumeLoading(UUID id) {
+        MigrationStatus status = statusRepository.find(id);
+
+        if (status.getStep() != EtlStep.ERROR || status.getMetadata().getCompletedLoadSteps().isEmpty()) {
+            throw new InvalidMigrationStateException("Migração com ID '" + status.getId() + "' não possui carga incompleta para ser retomada.");
+        }
+
+        status.setMessage(null);
+        asyncEtlExecutorService.startLoading(status);
+    }
+
     public void startConsistencyValidation(UUID id) {
         MigrationStatus status = statusRepository.find(id);
 
@@ -80,6 +113,16 @@ public class EtlService {
         asyncEtlExecutorService.startConsistencyValidation(status);
     }
 
+    public void updateSql(UUID id, List<SqlDTO> sqlFiles) {
+        MigrationStatus status = statusRepository.find(id);
+        sqlService.updateDDL(status.getName(), sqlFiles);
+
+        // Tabelas editadas manualmente são carregadas pelos arquivos SQL, e não pela carga em massa
+        for (var file : sqlFiles) {
+            status.getMetadata().getEditedTables().add(file.filename().replaceFirst("\\.sql$", ""));
+        }
+    }
+
     public MigrationStatus getCurrentStatus(UUID id) {
         return statusRepository.find(id);
     }
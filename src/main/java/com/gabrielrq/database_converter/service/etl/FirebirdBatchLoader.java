@@ -0,0 +1,252 @@
+package com.gabrielrq.database_converter.service.etl;
+
+import com.gabrielrq.database_converter.domain.ColumnDefinition;
+import com.gabrielrq.database_converter.domain.TableDefinition;
+import com.gabrielrq.database_converter.domain.TableProgress;
+import com.gabrielrq.database_converter.service.JsonService;
+import com.gabrielrq.database_converter.service.SqlService;
+import com.gabrielrq.database_converter.service.TableDataService;
+import com.gabrielrq.database_converter.util.RowColumnMapping;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Carga de tabelas no Firebird com instruções parametrizadas em lote, lendo os segmentos intermediários em fluxo.
+ * <p>
+ * BLOBs são enviados via {@code setBinaryStream}/{@code setCharacterStream}, sem literais hexadecimais. Tabelas sem
+ * BLOBs têm as linhas agrupadas em blocos {@code EXECUTE BLOCK}, reduzindo as idas ao servidor; o tamanho de cada
+ * bloco é limitado pela quantidade de parâmetros e pelo tamanho da mensagem de entrada aceitos pelo Firebird.
+ */
+@Service
+public class FirebirdBatchLoader implements TableBulkLoader {
+
+    private static final String TARGET = "FIREBIRD";
+    private static final int MAX_BLOCK_PARAMETERS = 1_000;
+    private static final int MAX_BLOCK_MESSAGE_BYTES = 60_000;
+
+    private enum Binding {OBJECT, BINARY_BLOB, TEXT_BLOB, TIMESTAMP, TIMESTAMP_TZ, DATE, TIME}
+
+    @Value("${migration.load.batchSize:1000}")
+    private int batchSize;
+    @Value("${migration.load.firebird.blockRows:50}")
+    private int blockRows;
+
+    private final TableDataService tableDataService;
+    private final SqlService sqlService;
+    private final JsonService jsonService;
+
+    public FirebirdBatchLoader(TableDataService tableDataService, SqlService sqlService, JsonService jsonService) {
+        this.tableDataService = tableDataService;
+        this.sqlService = sqlService;
+        this.jsonService = jsonService;
+    }
+
+    @Override
+    public long load(Connection connection, TableDefinition table, List<Path> segments, RowRejectHandler rejectHandler, TableProgress progress) throws SQLException, IOException {
+        List<ColumnDefinition> columns = table.columns();
+        Binding[] bindings = new Binding[columns.size()];
+        for (int i = 0; i < bindings.length; i++) {
+            bindings[i] = resolveBinding(columns.get(i));
+        }
+
+        String columnList = String.join(",", columns.stream().map(ColumnDefinition::name).toList());
+        String insert = "INSERT INTO " + table.name() + " (" + columnList + ") VALUES (" + String.join(",", Collections.nCopies(columns.size(), "?")) + ")";
+        int rowsPerBlock = rowsPerBlock(columns, bindings);
+
+        try (
+                PreparedStatement single = connection.prepareStatement(insert);
+                PreparedStatement block = rowsPerBlock > 1 ? connection.prepareStatement(executeBlock(table, columns, rowsPerBlock)) : null
+        ) {
+            // Grupos completos seguem pelo EXECUTE BLOCK; sobras e subdivisões de lotes com erro, pelo INSERT simples
+            RowRejectHandler.BatchAction<Object[]> execute = rows -> {
+                if (block != null && rows.size() == rowsPerBlock) {
+                    bindBlock(block, rows, columns, bindings);
+                    block.execute();
+                    return;
+                }
+                try {
+                    for (Object[] values : rows) {
+                        bindRow(single, 0, values, columns, bindings);
+                        single.addBatch();
+                    }
+                    single.executeBatch();
+                } catch (SQLException e) {
+                    single.clearBatch();
+                    throw e;
+                }
+            };
+            Function<Object[], Object> describe = values -> {
+                Map<String, Object> row = new LinkedHashMap<>();
+                for (int i = 0; i < values.length; i++) {
+                    row.put(columns.get(i).name(), values[i]);
+                }
+                return row;
+            };
+
+            int groupSize = block != null ? rowsPerBlock : batchSize;
+            List<Object[]> pending = new ArrayList<>(groupSize);
+            RowColumnMapping mapping = new RowColumnMapping(table);
+            long rowCount = 0;
+
+            for (Path segment : segments) {
+                mapping.reset();
+                rowCount += tableDataService.streamTableData(segment, row -> {
+                    // Cada linha fica pendente até o envio do lote, por isso não reaproveita o array
+                    pending.add(mapping.read(row, new Object[columns.size()]));
+                    if (pending.size() >= groupSize) {
+                        try {
+                            rejectHandler.execute(pending, execute, describe);
+                        } catch (SQLException e) {
+                            throw new IOException(e);
+                        }
+                        pending.clear();
+                    }
+                    progress.addRows(1);
+                });
+                progress.addBytes(Files.size(segment));
+            }
+
+            rejectHandler.execute(pending, execute, describe);
+            return rowCount;
+        }
+    }
+
+    private int rowsPerBlock(List<ColumnDefinition> columns, Binding[] bindings) throws IOException {
+        if (blockRows <= 1 || columns.isEmpty()) return 1;
+
+        int rowBytes = 0;
+        for (int i = 0; i < bindings.length; i++) {
+            if (bindings[i] == Binding.BINARY_BLOB || bindings[i] == Binding.TEXT_BLOB) {
+                return 1;
+            }
+            rowBytes += estimateParameterBytes(columns.get(i));
+        }
+
+        int byParameters = MAX_BLOCK_PARAMETERS / columns.size();
+        int byMessage = MAX_BLOCK_MESSAGE_BYTES / Math.max(rowBytes, 1);
+        return Math.max(1, Math.min(blockRows, Math.min(byParameters, byMessage)));
+    }
+
+    private String executeBlock(TableDefinition table, List<ColumnDefinition> columns, int rows) throws IOException {
+        Map<Integer, String> conversionMap = jsonService.readConversionMap(TARGET);
+        String columnList = String.join(",", columns.stream().map(ColumnDefinition::name).toList());
+
+        StringBuilder parameters = new StringBuilder();
+        StringBuilder body = new StringBuilder();
+        for (int r = 0; r < rows; r++) {
+            body.append("INSERT INTO ").append(table.name()).append(" (").append(columnList).append(") VALUES (");
+            for (int c = 0; c < columns.size(); c++) {
+                String name = "p" + r + "_" + c;
+                if (parameters.length() > 0) parameters.append(',');
+                parameters.append(name).append(' ').append(sqlService.formatColumnType(columns.get(c), conversionMap, TARGET)).append(" = ?");
+                if (c > 0) body.append(',');
+                body.append(':').append(name);
+            }
+            body.append(");\n");
+        }
+        return "EXECUTE BLOCK (" + parameters + ") AS BEGIN\n" + body + "END";
+    }
+
+    private void bindBlock(PreparedStatement stmt, List<Object[]> rows, List<ColumnDefinition> columns, Binding[] bindings) throws SQLException {
+        int offset = 0;
+        for (Object[] values : rows) {
+            bindRow(stmt, offset, values, columns, bindings);
+            offset += values.length;
+        }
+    }
+
+    private void bindRow(PreparedStatement stmt, int offset, Object[] values, List<ColumnDefinition> columns, Binding[] bindings) throws SQLException {
+        for (int i = 0; i < values.length; i++) {
+            int index = offset + i + 1;
+            Object value = values[i];
+            if (value == null) {
+                stmt.setNull(index, columns.get(i).genericType());
+                continue;
+            }
+
+            switch (bindings[i]) {
+                case BINARY_BLOB -> {
+                    byte[] bytes = value instanceof byte[] b ? b : Base64.getDecoder().decode(value.toString());
+                    stmt.setBinaryStream(index, new ByteArrayInputStream(bytes), bytes.length);
+                }
+                case TEXT_BLOB -> {
+                    String text = value.toString();
+                    stmt.setCharacterStream(index, new StringReader(text), text.length());
+                }
+                default -> stmt.setObject(index, convertTemporal(value, bindings[i]));
+            }
+        }
+    }
+
+    // Datas e horas chegam como texto ISO-8601; valores fora do padrão seguem para o driver sem conversão
+    private static Object convertTemporal(Object value, Binding binding) {
+        if (!(value instanceof String text)) return value;
+
+        try {
+            return switch (binding) {
+                case TIMESTAMP -> OffsetDateTime.parse(text).toLocalDateTime();
+                case TIMESTAMP_TZ -> OffsetDateTime.parse(text);
+                case DATE -> LocalDate.parse(text);
+                case TIME -> LocalTime.parse(text);
+                default -> value;
+            };
+        } catch (DateTimeParseException e) {
+            return value;
+        }
+    }
+
+    private static Binding resolveBinding(ColumnDefinition column) {
+        String targetType = column.targetType() != null ? column.targetType().toUpperCase() : "";
+        if (targetType.startsWith("BLOB SUB_TYPE 0") || targetType.equals("BLOB")) return Binding.BINARY_BLOB;
+        if (targetType.startsWith("BLOB")) return Binding.TEXT_BLOB;
+        if (isLongText(column)) return Binding.TEXT_BLOB;
+
+        return switch (column.genericType()) {
+            case Types.TIMESTAMP -> Binding.TIMESTAMP;
+            case Types.TIMESTAMP_WITH_TIMEZONE -> Binding.TIMESTAMP_TZ;
+            case Types.DATE -> Binding.DATE;
+            case Types.TIME -> Binding.TIME;
+            default -> Binding.OBJECT;
+        };
+    }
+
+    // Mesmo critério do DDL gerado, que converte textos sem limite para BLOB SUB_TYPE TEXT
+    private static boolean isLongText(ColumnDefinition column) {
+        return switch (column.genericType()) {
+            case Types.VARCHAR, Types.NVARCHAR, Types.LONGVARCHAR, Types.LONGNVARCHAR, Types.CHAR ->
+                    "TEXT".equalsIgnoreCase(column.originType()) || column.length() >= Integer.MAX_VALUE;
+            default -> false;
+        };
+    }
+
+    // Estimativa do espaço ocupado por cada parâmetro na mensagem de entrada (textos em UTF8 usam até 4 bytes)
+    private static int estimateParameterBytes(ColumnDefinition column) {
+        return switch (column.genericType()) {
+            case Types.VARCHAR, Types.NVARCHAR, Types.LONGVARCHAR, Types.LONGNVARCHAR, Types.CHAR, Types.NCHAR ->
+                    Math.max(column.length(), 1) * 3 * 4 + 2;
+            case Types.NUMERIC, Types.DECIMAL -> 16;
+            default -> 8;
+        } + 2;
+    }
+}
@@ -0,0 +1,219 @@
+package com.gabrielrq.database_converter.service.etl;
+
+import com.gabrielrq.database_converter.domain.ColumnDefinition;
+import com.gabrielrq.database_converter.domain.TableDefinition;
+import com.gabrielrq.database_converter.domain.TableProgress;
+import com.gabrielrq.database_converter.service.TableDataService;
+import com.gabrielrq.database_converter.util.RowColumnMapping;
+import io.micrometer.core.instrument.Timer;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Carga de tabelas no PostgreSQL via {@code COPY ... FROM STDIN}, lendo os segmentos intermediários em fluxo.
+ * Os valores são codificados no formato texto do COPY conforme o tipo de destino de cada coluna.
+ */
+@Service
+public class PostgresCopyLoader implements TableBulkLoader {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    @Value("${migration.load.batchSize:1000}")
+    private int batchSize;
+
+    private final TableDataService tableDataService;
+
+    public PostgresCopyLoader(TableDataService tableDataService) {
+        this.tableDataService = tableDataService;
+    }
+
+    @Override
+    public boolean supports(Connection connection) throws SQLException {
+        // Destinos compatíveis com o dialeto, mas sem o driver do PostgreSQL, não possuem a API de COPY
+        return connection.isWrapperFor(PGConnection.class);
+    }
+
+    @Override
+    public long load(Connection connection, TableDefinition table, List<Path> segments, RowRejectHandler rejectHandler, TableProgress progress) throws SQLException, IOException {
+        List<ColumnDefinition> columns = table.columns();
+        boolean[] binary = new boolean[columns.size()];
+        for (int i = 0; i < binary.length; i++) {
+            binary[i] = "BYTEA".equalsIgnoreCase(columns.get(i).targetType());
+        }
+
+        String sql = "COPY " + table.name() + " (" + String.join(",", columns.stream().map(ColumnDefinition::name).toList()) + ") FROM STDIN";
+        CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+
+        if (rejectHandler.isEnabled()) {
+            return loadIsolated(copyManager, sql, table, binary, segments, rejectHandler, progress);
+        }
+
+        CopyIn copyIn = copyManager.copyIn(sql);
+        try {
+            // Sem isolamento de erros, cada envio do buffer ao servidor é contado como um lote
+            CopyBuffer buffer = new CopyBuffer(copyIn, progress.getMetrics().batchTimer("load"));
+            RowColumnMapping mapping = new RowColumnMapping(table);
+            Object[] values = new Object[columns.size()];
+            long rowCount = 0;
+            for (Path segment : segments) {
+                mapping.reset();
+                rowCount += tableDataService.streamTableData(segment, row -> {
+                    try {
+                        buffer.write(formatRow(buffer.line, mapping.read(row, values), binary));
+                    } catch (SQLException e) {
+                        throw new IOException(e);
+                    }
+                    progress.addRows(1);
+                });
+                progress.addBytes(Files.size(segment));
+            }
+            buffer.flush();
+            copyIn.endCopy();
+            return rowCount;
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    /**
+     * Um COPY falho é descartado por inteiro; para isolar linhas com erro, os dados são enviados em vários COPY
+     * de {@code migration.load.batchSize} linhas, que podem ser subdivididos.
+     */
+    private long loadIsolated(CopyManager copyManager, String sql, TableDefinition table, boolean[] binary, List<Path> segments, RowRejectHandler rejectHandler, TableProgress progress) throws SQLException, IOException {
+        RowRejectHandler.BatchAction<String> copyLines = lines -> {
+            CopyIn copyIn = copyManager.copyIn(sql);
+            try {
+                CopyBuffer buffer = new CopyBuffer(copyIn, null);
+                for (String line : lines) {
+                    buffer.write(line);
+                }
+                buffer.flush();
+                copyIn.endCopy();
+            } finally {
+                if (copyIn.isActive()) {
+                    copyIn.cancelCopy();
+                }
+            }
+        };
+
+        List<String> pending = new ArrayList<>(batchSize);
+        StringBuilder line = new StringBuilder();
+        RowColumnMapping mapping = new RowColumnMapping(table);
+        Object[] values = new Object[binary.length];
+        long rowCount = 0;
+        for (Path segment : segments) {
+            mapping.reset();
+            rowCount += tableDataService.streamTableData(segment, row -> {
+                pending.add(formatRow(line, mapping.read(row, values), binary).toString());
+                if (pending.size() >= batchSize) {
+                    try {
+                        rejectHandler.execute(pending, copyLines, l -> l.substring(0, l.length() - 1));
+                    } catch (SQLException e) {
+                        throw new IOException(e);
+                    }
+                    pending.clear();
+                }
+                progress.addRows(1);
+            });
+            progress.addBytes(Files.size(segment));
+        }
+        rejectHandler.execute(pending, copyLines, l -> l.substring(0, l.length() - 1));
+        return rowCount;
+    }
+
+    // Valores já na ordem das colunas da tabela, resolvida por RowColumnMapping
+    private static StringBuilder formatRow(StringBuilder line, Object[] values, boolean[] binary) {
+        line.setLength(0);
+
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) line.append('\t');
+
+            Object value = values[i];
+            if (value == null) {
+                line.append("\\N");
+            } else if (binary[i]) {
+                byte[] bytes = value instanceof byte[] b ? b : Base64.getDecoder().decode(value.toString());
+                line.append("\\\\x");
+                for (byte b : bytes) {
+                    line.append(HEX[(b >> 4) & 0xF]).append(HEX[b & 0xF]);
+                }
+            } else if (value instanceof Number || value instanceof Boolean) {
+                line.append(value);
+            } else {
+                appendEscaped(line, value.toString());
+            }
+        }
+        line.append('\n');
+        return line;
+    }
+
+    private static void appendEscaped(StringBuilder line, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> line.append("\\\\");
+                case '\t' -> line.append("\\t");
+                case '\n' -> line.append("\\n");
+                case '\r' -> line.append("\\r");
+                case '\0' -> {
+                    // O PostgreSQL não aceita o caractere nulo em textos
+                }
+                default -> line.append(c);
+            }
+        }
+    }
+
+    private static class CopyBuffer {
+        private final CopyIn copyIn;
+        private final Timer flushTimer;
+        private final StringBuilder line = new StringBuilder();
+        private final byte[] bytes = new byte[BUFFER_SIZE];
+        private int position;
+
+        CopyBuffer(CopyIn copyIn, Timer flushTimer) {
+            this.copyIn = copyIn;
+            this.flushTimer = flushTimer;
+        }
+
+        void write(CharSequence chars) throws SQLException {
+            byte[] encoded = chars.toString().getBytes(StandardCharsets.UTF_8);
+            if (position + encoded.length > bytes.length) {
+                flush();
+            }
+            if (encoded.length > bytes.length) {
+                copyIn.writeToCopy(encoded, 0, encoded.length);
+                return;
+            }
+            System.arraycopy(encoded, 0, bytes, position, encoded.length);
+            position += encoded.length;
+        }
+
+        void flush() throws SQLException {
+            if (position > 0) {
+                long start = System.nanoTime();
+                copyIn.writeToCopy(bytes, 0, position);
+                position = 0;
+                if (flushTimer != null) {
+                    flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            }
+        }
+    }
+}
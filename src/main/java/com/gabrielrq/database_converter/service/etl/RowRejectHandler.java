@@ -0,0 +1,168 @@
+package com.gabrielrq.database_converter.service.etl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gabrielrq.database_converter.domain.MigrationMetrics;
+import com.gabrielrq.database_converter.event.StatementBatchEvent;
+import com.gabrielrq.database_converter.exception.LoadingException;
+import io.micrometer.core.instrument.Timer;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Isolamento de linhas com erro durante a carga de uma tabela.
+ * <p>
+ * Cada lote é executado sob um savepoint. Se falhar, o lote é desfeito e dividido ao meio recursivamente até
+ * isolar as linhas rejeitadas, que são gravadas no arquivo de rejeitos informado (uma linha JSON por registro,
+ * com o erro SQL). A carga segue com lotes completos; ao exceder o limite de rejeitos da tabela, a carga falha.
+ * Quando desativado, os lotes são executados diretamente e o primeiro erro é propagado.
+ */
+public class RowRejectHandler implements Closeable {
+
+    @FunctionalInterface
+    public interface BatchAction<T> {
+        void execute(List<T> items) throws SQLException;
+    }
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Connection connection;
+    private final String table;
+    private final Path deadLetterFile;
+    private final long errorBudget;
+    private final Map<String, Long> rejectCounts;
+    private BufferedWriter writer;
+    private String migrationId;
+    private String stage;
+    private Timer batchTimer;
+
+    private RowRejectHandler(Connection connection, String table, Path deadLetterFile, long errorBudget, Map<String, Long> rejectCounts) {
+        this.connection = connection;
+        this.table = table;
+        this.deadLetterFile = deadLetterFile;
+        this.errorBudget = errorBudget;
+        this.rejectCounts = rejectCounts;
+    }
+
+    public static RowRejectHandler disabled(Connection connection, String table) {
+        return new RowRejectHandler(connection, table, null, 0, null);
+    }
+
+    public static RowRejectHandler tolerant(Connection connection, String table, Path deadLetterFile, long errorBudget, Map<String, Long> rejectCounts) {
+        return new RowRejectHandler(connection, table, deadLetterFile, errorBudget, rejectCounts);
+    }
+
+    /**
+     * Registra a duração de cada lote, incluindo as subdivisões de um lote com erro, no histograma de lotes da
+     * etapa e como evento JFR.
+     */
+    public RowRejectHandler instrument(MigrationMetrics metrics, String stage) {
+        this.migrationId = metrics.getMigrationId();
+        this.stage = stage;
+        this.batchTimer = metrics.batchTimer(stage);
+        return this;
+    }
+
+    public boolean isEnabled() {
+        return deadLetterFile != null;
+    }
+
+    /**
+     * Executa o lote; {@code describe} converte cada item no registro gravado no arquivo de rejeitos.
+     */
+    public <T> void execute(List<T> items, BatchAction<T> action, Function<T, Object> describe) throws SQLException {
+        if (items.isEmpty()) return;
+
+        if (batchTimer == null) {
+            executeIsolated(items, action, describe);
+            return;
+        }
+        StatementBatchEvent event = new StatementBatchEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            executeIsolated(items, action, describe);
+        } finally {
+            batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (event.shouldCommit()) {
+                event.migrationId = migrationId;
+                event.table = table;
+                event.stage = stage;
+                event.rows = items.size();
+                event.commit();
+            }
+        }
+    }
+
+    private <T> void executeIsolated(List<T> items, BatchAction<T> action, Function<T, Object> describe) throws SQLException {
+        if (items.isEmpty()) return;
+
+        if (!isEnabled()) {
+            action.execute(items);
+            return;
+        }
+
+        Savepoint savepoint = connection.setSavepoint();
+        try {
+            action.execute(items);
+            connection.releaseSavepoint(savepoint);
+        } catch (SQLException e) {
+            connection.rollback(savepoint);
+            // O rollback mantém o savepoint aberto; sem liberá-lo, cada nível da bisseção deixaria uma
+            // subtransação pendente até o commit
+            connection.releaseSavepoint(savepoint);
+            if (items.size() == 1) {
+                reject(describe.apply(items.getFirst()), e);
+                return;
+            }
+
+            int middle = items.size() / 2;
+            executeIsolated(items.subList(0, middle), action, describe);
+            executeIsolated(items.subList(middle, items.size()), action, describe);
+        }
+    }
+
+    private void reject(Object row, SQLException e) throws SQLException {
+        // O limite vale para a tabela inteira, mesmo quando seus segmentos são carregados em paralelo
+        long rejected = rejectCounts.merge(table, 1L, Long::sum);
+
+        try {
+            if (writer == null) {
+                Files.createDirectories(deadLetterFile.getParent());
+                writer = Files.newBufferedWriter(deadLetterFile, StandardCharsets.UTF_8);
+            }
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("sqlState", e.getSQLState());
+            entry.put("error", e.getMessage());
+            entry.put("row", row);
+            writer.write(MAPPER.writeValueAsString(entry));
+            writer.newLine();
+        } catch (IOException ex) {
+            throw new LoadingException("Erro ao gravar linha rejeitada da tabela '" + table + "'. Detalhe: " + ex.getMessage());
+        }
+
+        if (rejected > errorBudget) {
+            throw new LoadingException("Limite de %d linha(s) rejeitada(s) excedido na tabela '%s'. Último erro: %s"
+                    .formatted(errorBudget, table, e.getMessage()));
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+        }
+    }
+}
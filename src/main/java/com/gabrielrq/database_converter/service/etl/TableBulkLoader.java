@@ -0,0 +1,26 @@
+package com.gabrielrq.database_converter.service.etl;
+
+import com.gabrielrq.database_converter.domain.TableDefinition;
+import com.gabrielrq.database_converter.domain.TableProgress;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+public interface TableBulkLoader {
+    /**
+     * Carrega os segmentos na tabela, contabilizando em {@code progress} as linhas lidas e o tamanho dos segmentos
+     * concluídos.
+     */
+    long load(Connection connection, TableDefinition table, List<Path> segments, RowRejectHandler rejectHandler, TableProgress progress) throws SQLException, IOException;
+
+    /**
+     * Indica se a conexão de destino oferece a API usada pela carga; do contrário, as tabelas são carregadas
+     * pelos scripts DML.
+     */
+    default boolean supports(Connection connection) throws SQLException {
+        return true;
+    }
+}
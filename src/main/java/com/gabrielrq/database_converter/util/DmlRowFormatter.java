@@ -0,0 +1,197 @@
+package com.gabrielrq.database_converter.util;
+
+import com.gabrielrq.database_converter.domain.ColumnDefinition;
+import com.gabrielrq.database_converter.domain.TableDefinition;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.sql.Types;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Formata as linhas de uma tabela como comandos {@code INSERT} do dialeto de destino. O formatador de cada coluna é
+ * escolhido uma única vez, pelo tipo genérico da coluna, e os valores são associados às colunas por
+ * {@link RowColumnMapping}, pela posição resolvida no início de cada segmento ({@link #startSegment()}). Os textos são
+ * escapados em uma única passagem sobre um buffer reaproveitado entre as linhas; por isso, uma instância não deve ser
+ * compartilhada entre threads.
+ */
+public final class DmlRowFormatter {
+
+    // Literais de texto do Firebird são limitados a 64 KB; acima disso, o texto é enviado como literal BLOB
+    private static final int FIREBIRD_MAX_TEXT_LITERAL = 60_000;
+    // O TIMESTAMP do Firebird tem precisão de décimos de milissegundo
+    private static final int FIREBIRD_FRACTION_DIGITS = 4;
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    @FunctionalInterface
+    private interface ValueFormatter {
+        void append(StringBuilder out, Object value);
+    }
+
+    private final String insertPrefix;
+    private final RowColumnMapping mapping;
+    private final Object[] values;
+    private final ValueFormatter[] formatters;
+    private final StringBuilder line = new StringBuilder(256);
+    private char[] chars = new char[256];
+
+    private DmlRowFormatter(String insertPrefix, RowColumnMapping mapping, ValueFormatter[] formatters) {
+        this.insertPrefix = insertPrefix;
+        this.mapping = mapping;
+        this.values = new Object[mapping.size()];
+        this.formatters = formatters;
+    }
+
+    public static DmlRowFormatter compile(TableDefinition table, String target) {
+        List<ColumnDefinition> columns = table.columns();
+        String[] columnNames = new String[columns.size()];
+        ValueFormatter[] formatters = new ValueFormatter[columns.size()];
+        boolean firebird = "FIREBIRD".equals(target);
+        for (int i = 0; i < columns.size(); i++) {
+            columnNames[i] = columns.get(i).name();
+            formatters[i] = formatterFor(columns.get(i), firebird);
+        }
+
+        String insertPrefix = "INSERT INTO " +
+//                table.schema() + "." +
+                table.name() + " (" + String.join(",", columnNames) + ") VALUES (";
+        return new DmlRowFormatter(insertPrefix, new RowColumnMapping(table), formatters);
+    }
+
+    /**
+     * Deve ser chamado antes das linhas de cada segmento, cujas colunas podem estar em outra ordem.
+     */
+    public void startSegment() {
+        mapping.reset();
+    }
+
+    /**
+     * Formata a linha, incluindo o separador de linha, no buffer interno. O conteúdo retornado é válido até a
+     * próxima chamada.
+     */
+    public StringBuilder format(Map<String, Object> row) throws IOException {
+        mapping.read(row, values);
+        line.setLength(0);
+        line.append(insertPrefix);
+        for (int i = 0; i < formatters.length; i++) {
+            if (i > 0) line.append(',');
+
+            Object value = values[i];
+            if (value == null) {
+                line.append("NULL");
+            } else {
+                formatters[i].append(line, value);
+            }
+        }
+        return line.append(");").append(LINE_SEPARATOR);
+    }
+
+    public void write(Map<String, Object> row, Writer writer) throws IOException {
+        StringBuilder formatted = format(row);
+        int length = formatted.length();
+        if (chars.length < length) {
+            chars = new char[Math.max(length, chars.length * 2)];
+        }
+        formatted.getChars(0, length, chars, 0);
+        writer.write(chars, 0, length);
+    }
+
+    private static ValueFormatter formatterFor(ColumnDefinition column, boolean firebird) {
+        ValueFormatter text = firebird ? DmlRowFormatter::appendFirebirdText : DmlRowFormatter::appendText;
+        return switch (column.genericType()) {
+            case Types.TINYINT, Types.SMALLINT, Types.INTEGER, Types.BIGINT, Types.REAL, Types.FLOAT, Types.DOUBLE,
+                 Types.NUMERIC, Types.DECIMAL, Types.BIT, Types.BOOLEAN -> (out, value) -> {
+                switch (value) {
+                    case BigDecimal bd -> out.append(bd.toPlainString());
+                    case Number n -> out.append(n);
+                    case Boolean b -> out.append(b);
+                    default -> text.append(out, value);
+                }
+            };
+            case Types.BINARY, Types.VARBINARY, Types.LONGVARBINARY, Types.BLOB -> (out, value) -> {
+                if (value instanceof byte[] bytes) {
+                    // Mesma representação (base64) produzida pelo formato JSON
+                    out.append('\'').append(Base64.getEncoder().encodeToString(bytes)).append('\'');
+                } else {
+                    text.append(out, value);
+                }
+            };
+            case Types.TIMESTAMP, Types.TIMESTAMP_WITH_TIMEZONE -> firebird ? DmlRowFormatter::appendFirebirdTimestamp : text;
+            default -> (out, value) -> {
+                if (value instanceof Number || value instanceof Boolean) {
+                    out.append(value);
+                } else {
+                    text.append(out, value);
+                }
+            };
+        };
+    }
+
+    /**
+     * Literal de texto com aspas duplicadas e sem caracteres de controle, escrito diretamente no buffer.
+     */
+    private static void appendText(StringBuilder out, Object value) {
+        String text = value.toString();
+        out.append('\'');
+        // Trechos sem caracteres especiais são copiados de uma vez
+        int start = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\'' || c < 0x20 || c == 0x7F) {
+                out.append(text, start, i);
+                if (c == '\'') out.append("''");
+                start = i + 1;
+            }
+        }
+        out.append(text, start, text.length()).append('\'');
+    }
+
+    private static void appendFirebirdText(StringBuilder out, Object value) {
+        String text = value.toString();
+        if (text.length() > FIREBIRD_MAX_TEXT_LITERAL) {
+            String stripped = stripControlChars(text);
+            if (stripped.length() > FIREBIRD_MAX_TEXT_LITERAL) {
+                out.append(FirebirdBlobHelper.toFirebirdBlobLiteral(stripped));
+                return;
+            }
+        }
+        appendText(out, text);
+    }
+
+    /**
+     * Instantes ISO-8601 extraídos ({@code 2024-05-17T10:15:30.123Z}) no formato aceito pelo Firebird: data e hora
+     * separadas por espaço, fração limitada à precisão do Firebird e sem a zona. Outros valores são escritos como texto.
+     */
+    private static void appendFirebirdTimestamp(StringBuilder out, Object value) {
+        String text = value.toString();
+        if (text.length() < 19 || text.charAt(10) != 'T') {
+            appendText(out, text);
+            return;
+        }
+
+        out.append('\'').append(text, 0, 10).append(' ').append(text, 11, 19);
+        int end = 19;
+        if (end < text.length() && text.charAt(end) == '.') {
+            int fractionEnd = end + 1;
+            while (fractionEnd < text.length() && Character.isDigit(text.charAt(fractionEnd))) {
+                fractionEnd++;
+            }
+            out.append(text, end, Math.min(fractionEnd, end + 1 + FIREBIRD_FRACTION_DIGITS));
+        }
+        out.append('\'');
+    }
+
+    private static String stripControlChars(String text) {
+        StringBuilder stripped = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= 0x20 && c != 0x7F) {
+                stripped.append(c);
+            }
+        }
+        return stripped.toString();
+    }
+}
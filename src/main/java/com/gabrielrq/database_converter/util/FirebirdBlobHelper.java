@@ -1,11 +1,14 @@
 package com.gabrielrq.database_converter.util;
 
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
-import java.util.List;
 
 public class FirebirdBlobHelper {
 
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+    private static final String CHUNK_PREFIX = "CAST(x'";
+    private static final String CHUNK_SUFFIX = "' AS BLOB SUB_TYPE TEXT)";
+    private static final String SEPARATOR = " || ";
+
     public static String toFirebirdBlobLiteral(String text) {
         if (text == null || text.isEmpty()) {
             return "NULL";
@@ -14,21 +17,19 @@ public class FirebirdBlobHelper {
         // Converte o texto para bytes UTF-8
         byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
 
-        // Converte cada byte para HEX
-        StringBuilder hexBuilder = new StringBuilder(bytes.length * 2);
-        for (byte b : bytes) {
-            hexBuilder.append(String.format("%02X", b));
-        }
-        String hex = hexBuilder.toString();
+        // Divide em chunks seguros (< 64 KB), com 15.000 bytes (30.000 dígitos HEX) cada
+        int chunkBytes = 15_000;
+        int chunks = (bytes.length + chunkBytes - 1) / chunkBytes;
+        StringBuilder literal = new StringBuilder(bytes.length * 2 + chunks * (CHUNK_PREFIX.length() + CHUNK_SUFFIX.length() + SEPARATOR.length()));
 
-        // Divide em chunks seguros (< 64 KB)
-        int chunkSize = 30_000;
-        List<String> chunks = new ArrayList<>();
-        for (int i = 0; i < hex.length(); i += chunkSize) {
-            chunks.add(hex.substring(i, Math.min(hex.length(), i + chunkSize)));
+        // Gera o literal final concatenado com ||, convertendo cada byte para HEX por tabela
+        for (int i = 0; i < bytes.length; i++) {
+            if (i % chunkBytes == 0) {
+                if (i > 0) literal.append(CHUNK_SUFFIX).append(SEPARATOR);
+                literal.append(CHUNK_PREFIX);
+            }
+            literal.append(HEX[(bytes[i] >> 4) & 0xF]).append(HEX[bytes[i] & 0xF]);
         }
-
-        // Gera o literal final concatenado com ||
-        return String.join(" || ", chunks.stream().map(s -> "CAST(x'" + s + "' AS BLOB SUB_TYPE TEXT)").toArray(String[]::new));
+        return literal.append(CHUNK_SUFFIX).toString();
     }
 }
@@ -0,0 +1,81 @@
+package com.gabrielrq.database_converter.util;
+
+import com.gabrielrq.database_converter.domain.ColumnDefinition;
+import com.gabrielrq.database_converter.domain.TableDefinition;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Associa as colunas da tabela às posições dos valores nas linhas lidas de um segmento. As posições são resolvidas
+ * uma única vez por segmento, a partir das chaves da primeira linha (que seguem a ordem do cabeçalho do segmento):
+ * pelo nome exato ou, na falta dele, ignorando maiúsculas, como o banco trata identificadores sem aspas. Uma coluna
+ * da tabela sem valor no segmento interrompe a leitura, em vez de ser carregada como {@code NULL}. As linhas seguintes
+ * são lidas pela posição. Uma instância não deve ser compartilhada entre threads.
+ */
+public final class RowColumnMapping {
+
+    private final String table;
+    private final String[] columnNames;
+    private int[] positions;
+    private Object[] rowValues;
+
+    public RowColumnMapping(TableDefinition table) {
+        this.table = table.name();
+        this.columnNames = table.columns().stream().map(ColumnDefinition::name).toArray(String[]::new);
+    }
+
+    public int size() {
+        return columnNames.length;
+    }
+
+    /**
+     * Descarta as posições resolvidas; deve ser chamado antes da leitura de cada segmento.
+     */
+    public void reset() {
+        positions = null;
+    }
+
+    /**
+     * Copia os valores da linha para {@code target}, na ordem das colunas da tabela, e retorna {@code target}.
+     */
+    public Object[] read(Map<String, Object> row, Object[] target) throws IOException {
+        if (positions == null) {
+            resolve(new ArrayList<>(row.keySet()));
+        }
+        if (row.size() != rowValues.length) {
+            throw new IOException("Linha da tabela '%s' com %d valor(es), diferente das %d coluna(s) da primeira linha do segmento."
+                    .formatted(table, row.size(), rowValues.length));
+        }
+
+        int i = 0;
+        for (Object value : row.values()) {
+            rowValues[i++] = value;
+        }
+        for (int c = 0; c < positions.length; c++) {
+            target[c] = rowValues[positions[c]];
+        }
+        return target;
+    }
+
+    private void resolve(List<String> keys) throws IOException {
+        int[] resolved = new int[columnNames.length];
+        for (int c = 0; c < columnNames.length; c++) {
+            int position = keys.indexOf(columnNames[c]);
+            if (position < 0) {
+                for (int k = 0; k < keys.size() && position < 0; k++) {
+                    if (keys.get(k).equalsIgnoreCase(columnNames[c])) position = k;
+                }
+            }
+            if (position < 0) {
+                throw new IOException("Coluna '%s' da tabela '%s' ausente no segmento (colunas do segmento: %s)."
+                        .formatted(columnNames[c], table, String.join(", ", keys)));
+            }
+            resolved[c] = position;
+        }
+        positions = resolved;
+        rowValues = new Object[keys.size()];
+    }
+}
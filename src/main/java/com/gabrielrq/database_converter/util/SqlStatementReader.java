@@ -0,0 +1,161 @@
+package com.gabrielrq.database_converter.util;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Lê instruções SQL de um script em fluxo, separando-as por {@code ;}.
+ * <p>
+ * Ponto e vírgula dentro de textos ({@code '...'}), identificadores entre aspas ({@code "..."}) e comentários
+ * ({@code --} e {@code /* *}{@code /}) não encerram a instrução; quebras de linha dentro de textos são preservadas.
+ * Em blocos {@code EXECUTE BLOCK}, os {@code ;} das declarações e do corpo pertencem ao bloco, que só termina após
+ * o {@code END} correspondente ao primeiro {@code BEGIN}.
+ * Comentários são descartados.
+ */
+public class SqlStatementReader {
+
+    private static final int BUFFER_SIZE = 1 << 13;
+
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+
+    private final StringBuilder statement = new StringBuilder();
+    private final StringBuilder word = new StringBuilder();
+
+    public SqlStatementReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Retorna a próxima instrução, sem o {@code ;} final, ou {@code null} ao fim do script.
+     */
+    public String next() throws IOException {
+        statement.setLength(0);
+        word.setLength(0);
+        boolean block = false;
+        boolean execute = false;
+        boolean bodyClosed = false;
+        int words = 0;
+        int depth = 0;
+
+        int c;
+        while ((c = read()) != -1) {
+            char ch = (char) c;
+
+            if (Character.isLetterOrDigit(ch) || ch == '_' || ch == '$') {
+                word.append(ch);
+                statement.append(ch);
+                continue;
+            }
+
+            // Fim de palavra: identifica o início de um EXECUTE BLOCK e o aninhamento de BEGIN/CASE ... END
+            if (!word.isEmpty()) {
+                words++;
+                if (words == 1) {
+                    execute = word.toString().equalsIgnoreCase("EXECUTE");
+                } else if (words == 2) {
+                    block = execute && word.toString().equalsIgnoreCase("BLOCK");
+                } else if (block) {
+                    String w = word.toString();
+                    if (w.equalsIgnoreCase("BEGIN") || w.equalsIgnoreCase("CASE")) depth++;
+                    else if (w.equalsIgnoreCase("END") && --depth == 0) bodyClosed = true;
+                }
+                word.setLength(0);
+            }
+
+            switch (ch) {
+                case '\'', '"' -> readQuoted(ch);
+                case '-' -> {
+                    if (peek() == '-') {
+                        skipLineComment();
+                    } else {
+                        statement.append(ch);
+                    }
+                }
+                case '/' -> {
+                    if (peek() == '*') {
+                        skipBlockComment();
+                    } else {
+                        statement.append(ch);
+                    }
+                }
+                case ';' -> {
+                    // Declarações do bloco também terminam em ';', por isso só o fim do corpo encerra a instrução
+                    if (block && !bodyClosed) {
+                        statement.append(ch);
+                    } else {
+                        String sql = statement.toString().strip();
+                        if (!sql.isEmpty()) {
+                            return sql;
+                        }
+                        statement.setLength(0);
+                        words = 0;
+                        block = false;
+                        bodyClosed = false;
+                        depth = 0;
+                    }
+                }
+                default -> statement.append(ch);
+            }
+        }
+
+        String sql = statement.toString().strip();
+        return sql.isEmpty() ? null : sql;
+    }
+
+    private void readQuoted(char quote) throws IOException {
+        statement.append(quote);
+        int c;
+        while ((c = read()) != -1) {
+            statement.append((char) c);
+            if (c == quote) {
+                // Aspas duplicadas representam a própria aspa dentro do texto
+                if (peek() == quote) {
+                    statement.append((char) read());
+                } else {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void skipLineComment() throws IOException {
+        int c;
+        while ((c = read()) != -1 && c != '\n') {
+        }
+        statement.append('\n');
+    }
+
+    private void skipBlockComment() throws IOException {
+        read(); // '*'
+        int previous = 0;
+        int c;
+        while ((c = read()) != -1) {
+            if (previous == '*' && c == '/') break;
+            previous = c;
+        }
+        statement.append(' ');
+    }
+
+    private int read() throws IOException {
+        if (position == limit && !fill()) return -1;
+        return buffer[position++];
+    }
+
+    private int peek() throws IOException {
+        if (position == limit && !fill()) return -1;
+        return buffer[position];
+    }
+
+    private boolean fill() throws IOException {
+        limit = reader.read(buffer, 0, buffer.length);
+        position = 0;
+        if (limit <= 0) {
+            limit = 0;
+            return false;
+        }
+        return true;
+    }
+}
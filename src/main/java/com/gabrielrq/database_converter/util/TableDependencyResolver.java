@@ -66,5 +66,25 @@ public class TableDependencyResolver {
 
         return sorted;
     }
-}
 
+    /**
+     * Retorna, para cada tabela, as tabelas referenciadas por ela dentro do conjunto informado.
+     * Autorreferências e referências externas são ignoradas, pois não impõem ordem de carga entre tabelas.
+     */
+    public static Map<String, Set<String>> resolveParents(List<TableDefinition> tables) {
+        Set<String> tableNames = tables.stream().map(TableDefinition::name).collect(Collectors.toSet());
+
+        Map<String, Set<String>> parents = new LinkedHashMap<>();
+        for (TableDefinition table : tables) {
+            Set<String> tableParents = new LinkedHashSet<>();
+            for (ForeignKeyDefinition fk : table.foreignKeys()) {
+                String to = fk.referencedTable();
+                if (tableNames.contains(to) && !to.equals(table.name())) {
+                    tableParents.add(to);
+                }
+            }
+            parents.put(table.name(), tableParents);
+        }
+        return parents;
+    }
+}
@@ -0,0 +1,20 @@
+package com.gabrielrq.database_converter.util;
+
+/**
+ * Tamanhos efetivos dos pools de threads das etapas, a partir do valor configurado ({@code 0} usa o padrão pela
+ * quantidade de processadores). Compartilhados pelas etapas e pelo dimensionamento dos pools de conexão.
+ */
+public class ThreadPoolSizes {
+
+    public static int extract(int configured) {
+        return configured > 0 ? configured : Math.max(1, Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    public static int load(int configured) {
+        return configured > 0 ? configured : Math.max(1, Runtime.getRuntime().availableProcessors());
+    }
+
+    public static int validation(int configured) {
+        return configured > 0 ? configured : Math.max(2, Runtime.getRuntime().availableProcessors());
+    }
+}
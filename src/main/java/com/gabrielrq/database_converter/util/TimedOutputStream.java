@@ -0,0 +1,51 @@
+package com.gabrielrq.database_converter.util;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Acumula o tempo gasto nas escritas do fluxo encapsulado. Deve ficar abaixo do buffer, para medir apenas as escritas
+ * efetivas em disco.
+ */
+public class TimedOutputStream extends FilterOutputStream {
+
+    private long nanos;
+
+    public TimedOutputStream(OutputStream out) {
+        super(out);
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        long start = System.nanoTime();
+        out.write(b);
+        nanos += System.nanoTime() - start;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        long start = System.nanoTime();
+        out.write(b, off, len);
+        nanos += System.nanoTime() - start;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        long start = System.nanoTime();
+        out.flush();
+        nanos += System.nanoTime() - start;
+    }
+
+    @Override
+    public void close() throws IOException {
+        // O fluxo encapsulado não tem buffer; a descarga pendente já passou por write
+        long start = System.nanoTime();
+        out.close();
+        nanos += System.nanoTime() - start;
+    }
+}
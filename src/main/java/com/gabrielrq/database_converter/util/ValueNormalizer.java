@@ -0,0 +1,36 @@
+package com.gabrielrq.database_converter.util;
+
+import java.math.BigDecimal;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.util.HexFormat;
+
+public class ValueNormalizer {
+
+    /**
+     * Representação textual de um valor lido via JDBC que independe do banco: números pelo valor decimal, datas e
+     * horas em ISO local, binários em hexadecimal e textos sem os espaços de preenchimento de CHAR.
+     */
+    public static String normalize(Object value) throws SQLException {
+        return switch (value) {
+            case null -> "";
+            case Double d -> BigDecimal.valueOf(d).stripTrailingZeros().toPlainString();
+            case Float f -> new BigDecimal(f.toString()).stripTrailingZeros().toPlainString();
+            case BigDecimal bd -> bd.stripTrailingZeros().toPlainString();
+            case Number n -> n.toString();
+            case Timestamp ts -> ts.toLocalDateTime().toString();
+            case java.sql.Date date -> date.toLocalDate().toString();
+            case Time time -> time.toLocalTime().toString();
+            case OffsetDateTime odt -> odt.toInstant().toString();
+            case byte[] bytes -> HexFormat.of().formatHex(bytes);
+            case Blob blob -> HexFormat.of().formatHex(blob.getBytes(1, (int) blob.length()));
+            case Clob clob -> clob.getSubString(1L, (int) clob.length()).stripTrailing();
+            case String s -> s.stripTrailing();
+            default -> value.toString();
+        };
+    }
+}
@@ -0,0 +1,159 @@
+package com.gabrielrq.database_converter.service;
+
+import com.gabrielrq.database_converter.domain.SegmentStats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BinaryTableServiceTest {
+
+    private static final String[] NAMES = {"ID", "VALOR", "PRECO", "TAXA", "ATIVO", "NOME", "DADOS"};
+    private static final int[] TYPES = {Types.BIGINT, Types.INTEGER, Types.NUMERIC, Types.DOUBLE, Types.BOOLEAN, Types.VARCHAR, Types.BLOB};
+
+    @TempDir
+    Path basePath;
+
+    private final BinaryTableService service = new BinaryTableService();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "basePath", basePath.toString());
+    }
+
+    @Test
+    void roundTripsValuesNullsAndZigzagIntegers() throws Exception {
+        List<Object[]> rows = List.of(
+                new Object[]{0L, 0L, new BigDecimal("12345.6700"), 1.5, true, "texto", new byte[]{1, 2, 3}},
+                new Object[]{-1L, 1L, new BigDecimal("-0.001"), -0.0, false, "", new byte[0]},
+                new Object[]{Long.MIN_VALUE, (long) Integer.MIN_VALUE, null, null, null, null, null},
+                new Object[]{Long.MAX_VALUE, (long) Integer.MAX_VALUE, new BigDecimal("1E+20"), Double.NaN, true, "O'Brien; ção", new byte[]{-128, 127}},
+                new Object[]{-64L, 63L, BigDecimal.ZERO, Double.MIN_VALUE, false, "texto", new byte[]{0}}
+        );
+
+        SegmentStats stats = service.writeStream(resultSet(rows), "tabela", count -> {
+        });
+        List<Map<String, Object>> read = readAll("tabela");
+
+        assertEquals(rows.size(), stats.rowCount());
+        assertEquals(rows.size(), read.size());
+        for (int r = 0; r < rows.size(); r++) {
+            assertEquals(List.of(NAMES), new ArrayList<>(read.get(r).keySet()), "ordem das colunas");
+            assertRow(rows.get(r), read.get(r));
+        }
+    }
+
+    @Test
+    void keepsReadingStringsAfterTheDictionaryIsFull() throws Exception {
+        // Mais textos curtos distintos que o dicionário comporta, intercalados com textos já registrados
+        int rowCount = 70_000;
+        List<Object[]> rows = new ArrayList<>(rowCount);
+        for (int i = 0; i < rowCount; i++) {
+            String name = i % 3 == 0 ? "repetido-" + (i % 100) : "valor-" + i;
+            rows.add(new Object[]{(long) i, (long) -i, null, null, null, name, null});
+        }
+
+        service.writeStream(resultSet(rows), "dicionario", count -> {
+        });
+        List<Map<String, Object>> read = readAll("dicionario");
+
+        assertEquals(rowCount, read.size());
+        for (int r = 0; r < rowCount; r++) {
+            assertRow(rows.get(r), read.get(r));
+        }
+    }
+
+    @Test
+    void roundTripsLargeBlobsAndLongTexts() throws Exception {
+        byte[] blob = new byte[300_000];
+        for (int i = 0; i < blob.length; i++) {
+            blob[i] = (byte) (i * 31);
+        }
+        String longText = "x".repeat(100_000);
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{1L, 1L, null, null, null, longText, blob});
+        rows.add(new Object[]{2L, 2L, null, null, null, longText, blob});
+
+        service.writeStream(resultSet(rows), "blobs", count -> {
+        });
+        List<Map<String, Object>> read = readAll("blobs");
+
+        assertEquals(2, read.size());
+        assertRow(rows.get(0), read.get(0));
+        assertRow(rows.get(1), read.get(1));
+    }
+
+    @Test
+    void writesNoFileForAnEmptyResult() throws Exception {
+        SegmentStats stats = service.writeStream(resultSet(List.of()), "vazia", count -> {
+        });
+
+        assertSame(SegmentStats.EMPTY, stats);
+        assertFalse(Files.exists(basePath.resolve("vazia.bin")));
+    }
+
+    private List<Map<String, Object>> readAll(String filename) throws IOException {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        service.streamTableData(basePath.resolve(filename + ".bin"), rows::add);
+        return rows;
+    }
+
+    private static void assertRow(Object[] expected, Map<String, Object> actual) {
+        for (int c = 0; c < NAMES.length; c++) {
+            Object value = actual.get(NAMES[c]);
+            if (expected[c] instanceof byte[] bytes) {
+                assertArrayEquals(bytes, (byte[]) value, NAMES[c]);
+            } else {
+                assertEquals(expected[c], value, NAMES[c]);
+            }
+        }
+    }
+
+    /**
+     * ResultSet sobre as linhas informadas, com {@code wasNull()} refletindo o último valor lido.
+     */
+    private static ResultSet resultSet(List<Object[]> rows) throws SQLException {
+        ResultSetMetaData metadata = mock(ResultSetMetaData.class);
+        when(metadata.getColumnCount()).thenReturn(NAMES.length);
+        when(metadata.getColumnName(anyInt())).thenAnswer(inv -> NAMES[inv.<Integer>getArgument(0) - 1]);
+        when(metadata.getColumnType(anyInt())).thenAnswer(inv -> TYPES[inv.<Integer>getArgument(0) - 1]);
+
+        ResultSet rs = mock(ResultSet.class);
+        int[] cursor = {-1};
+        boolean[] lastNull = {false};
+        IntFunction<Object> value = index -> {
+            Object v = rows.get(cursor[0])[index - 1];
+            lastNull[0] = v == null;
+            return v;
+        };
+
+        when(rs.getMetaData()).thenReturn(metadata);
+        when(rs.next()).thenAnswer(inv -> ++cursor[0] < rows.size());
+        when(rs.wasNull()).thenAnswer(inv -> lastNull[0]);
+        when(rs.getLong(anyInt())).thenAnswer(inv -> value.apply(inv.getArgument(0)) instanceof Long l ? l : 0L);
+        when(rs.getDouble(anyInt())).thenAnswer(inv -> value.apply(inv.getArgument(0)) instanceof Double d ? d : 0.0);
+        when(rs.getBoolean(anyInt())).thenAnswer(inv -> value.apply(inv.getArgument(0)) instanceof Boolean b && b);
+        when(rs.getBigDecimal(anyInt())).thenAnswer(inv -> value.apply(inv.getArgument(0)));
+        when(rs.getString(anyInt())).thenAnswer(inv -> value.apply(inv.getArgument(0)));
+        when(rs.getBytes(anyInt())).thenAnswer(inv -> value.apply(inv.getArgument(0)));
+        return rs;
+    }
+}
@@ -0,0 +1,109 @@
+package com.gabrielrq.database_converter.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SqlStatementReaderTest {
+
+    @Test
+    void splitsStatementsAndIgnoresBlankOnes() throws IOException {
+        assertEquals(
+                List.of("INSERT INTO A VALUES (1)", "INSERT INTO A VALUES (2)"),
+                readAll("INSERT INTO A VALUES (1);\n;  ;\nINSERT INTO A VALUES (2)")
+        );
+    }
+
+    @Test
+    void keepsSemicolonsInsideQuotedTextAndIdentifiers() throws IOException {
+        assertEquals(
+                List.of("INSERT INTO \"A;B\" VALUES ('x;y', 'linha\n2')", "SELECT 1"),
+                readAll("INSERT INTO \"A;B\" VALUES ('x;y', 'linha\n2');SELECT 1;")
+        );
+    }
+
+    @Test
+    void keepsDoubledQuotesAsEscapes() throws IOException {
+        assertEquals(
+                List.of("INSERT INTO A VALUES ('O''Brien; ''x''')", "INSERT INTO \"B\"\"C\" VALUES (1)"),
+                readAll("INSERT INTO A VALUES ('O''Brien; ''x''');INSERT INTO \"B\"\"C\" VALUES (1);")
+        );
+    }
+
+    @Test
+    void dropsCommentsButNotCommentMarkersInsideText() throws IOException {
+        String script = """
+                -- comentário; com ponto e vírgula
+                INSERT INTO A VALUES (1 /* bloco; */, '-- texto', '/* texto */'); -- fim
+                SELECT 10 - 1 / 2;
+                """;
+
+        assertEquals(
+                List.of("INSERT INTO A VALUES (1  , '-- texto', '/* texto */')", "SELECT 10 - 1 / 2"),
+                readAll(script)
+        );
+    }
+
+    @Test
+    void keepsExecuteBlockBodyInOneStatement() throws IOException {
+        String block = "EXECUTE BLOCK (p0 INTEGER = ?) AS BEGIN\nINSERT INTO A VALUES (:p0);\nIF (1 = 1) THEN BEGIN x = 1; END\nEND";
+
+        assertEquals(List.of(block, "SELECT 1"), readAll(block + ";\nSELECT 1;"));
+    }
+
+    @Test
+    void splitsStatementsAcrossBufferBoundaries() throws IOException {
+        String script = "INSERT INTO A VALUES ('a;''b'); -- x;\nINSERT INTO A VALUES (1) /* ; */;SELECT 'fim'";
+        List<String> expected = List.of("INSERT INTO A VALUES ('a;''b')", "INSERT INTO A VALUES (1)", "SELECT 'fim'");
+
+        // Um caractere por leitura: cada aspa dupla, '--' e '/*' fica dividido entre dois preenchimentos do buffer
+        assertEquals(expected, readAll(new OneCharReader(script)));
+    }
+
+    @Test
+    void readsStatementsLargerThanTheBuffer() throws IOException {
+        String text = "x'';".repeat(5_000);
+        String insert = "INSERT INTO A VALUES ('" + text + "')";
+
+        assertEquals(List.of(insert, insert), readAll(insert + ";" + insert + ";"));
+    }
+
+    private static List<String> readAll(String script) throws IOException {
+        return readAll(new StringReader(script));
+    }
+
+    private static List<String> readAll(Reader reader) throws IOException {
+        SqlStatementReader statements = new SqlStatementReader(reader);
+        List<String> result = new ArrayList<>();
+        for (String sql = statements.next(); sql != null; sql = statements.next()) {
+            result.add(sql);
+        }
+        return result;
+    }
+
+    private static class OneCharReader extends Reader {
+        private final String text;
+        private int position;
+
+        OneCharReader(String text) {
+            this.text = text;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) {
+            if (position == text.length()) return -1;
+            buffer[offset] = text.charAt(position++);
+            return 1;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}